@@ -0,0 +1,202 @@
+package com.vilkovandrew.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Запуск замеров с профилировщиком сборщика мусора и сравнение с сохранёнными результатами.
+ * <p>
+ * Запуск: {@literal mvn -Pbenchmark compile exec:exec}. Параметры JMH передаются через
+ * {@literal -Dbenchmark.options="..."}, сохранение результатов как эталонных в {@literal src/jmh/baseline.properties} -
+ * через {@literal -Dbenchmark.saveBaseline=true}. Если время или выделенная память на операцию
+ * выросли относительно эталонных больше чем на {@literal benchmark.maxRegression} процентов,
+ * запуск завершается с кодом 1.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class BenchmarkRunner {
+    /**
+     * Суффикс имени вторичного результата с объёмом выделенной памяти на операцию
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String ALLOCATION_RESULT = "gc.alloc.rate.norm";
+
+    /**
+     * Допустимый рост результата относительно эталонного по умолчанию, в процентах
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String DEFAULT_MAX_REGRESSION = "25";
+
+    /**
+     * Рост выделенной памяти на операцию в байтах, который не считается ухудшением
+     * <p>
+     * Замеры без выделения памяти показывают доли байта на операцию, которые меняются от запуска к запуску
+     * из-за служебных выделений JMH и не отражают изменения кода.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final double ALLOCATION_NOISE_BYTES = 64;
+
+    /**
+     * Запуск замеров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param args параметры командной строки JMH
+     */
+    public static void main(String[] args) throws Exception {
+        String options = System.getProperty("benchmark.options", "").trim();
+        CommandLineOptions commandLine = new CommandLineOptions(options.isEmpty() ? args : options.split("\\s+"));
+        OptionsBuilder builder = new OptionsBuilder();
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        }
+        Options jmhOptions = builder
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        Collection<RunResult> results = new Runner(jmhOptions).run();
+
+        Map<String, String> current = toProperties(results);
+        Path baseline = Path.of(System.getProperty("benchmark.baseline", "src/jmh/baseline.properties"));
+        if (Boolean.getBoolean("benchmark.saveBaseline")) {
+            save(baseline, current);
+        } else if (Files.exists(baseline)) {
+            double maxRegression = Double.parseDouble(System.getProperty("benchmark.maxRegression", DEFAULT_MAX_REGRESSION));
+            List<String> regressions = compare(load(baseline), current, maxRegression);
+            if (!regressions.isEmpty()) {
+                System.out.println();
+                System.out.println(format("Результаты выросли больше чем на %.1f%%:", maxRegression));
+                regressions.forEach(System.out::println);
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Получение результатов в виде пар {@literal замер[параметры].метрика=значение}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param results результаты JMH
+     * @return результаты по ключам
+     */
+    private static Map<String, String> toProperties(Collection<RunResult> results) {
+        Map<String, String> values = new TreeMap<>();
+        for (RunResult result : results) {
+            String params = result.getParams().getParamsKeys().stream()
+                    .map(key -> key + "=" + result.getParams().getParam(key))
+                    .collect(Collectors.joining(",", "[", "]"));
+            String key = result.getParams().getBenchmark() + params;
+            values.put(key + ".score", Double.toString(result.getPrimaryResult().getScore()));
+            for (Map.Entry<String, Result> secondary : result.getSecondaryResults().entrySet()) {
+                if (secondary.getKey().endsWith(ALLOCATION_RESULT)) {
+                    values.put(key + ".alloc", Double.toString(secondary.getValue().getScore()));
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Вывод изменения результатов относительно эталонных и получение выросших сверх допустимого.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param baseline      эталонные результаты
+     * @param current       текущие результаты
+     * @param maxRegression допустимый рост результата в процентах
+     * @return ключи результатов, выросших больше допустимого
+     */
+    private static List<String> compare(Map<String, String> baseline, Map<String, String> current, double maxRegression) {
+        List<String> regressions = new ArrayList<>();
+        System.out.println();
+        System.out.println(format("%-100s %15s %15s %10s", "Benchmark", "Baseline", "Current", "Change"));
+        current.forEach((key, value) -> {
+            String previous = baseline.get(key);
+            if (previous == null) return;
+            double before = Double.parseDouble(previous);
+            double after = Double.parseDouble(value);
+            String change = before == 0 ? "n/a" : format("%+.1f%%", (after - before) * 100 / before);
+            System.out.println(format("%-100s %15.3f %15.3f %10s", key, before, after, change));
+            boolean allocation = key.endsWith(".alloc");
+            if (allocation && after - before <= ALLOCATION_NOISE_BYTES) return;
+            if (before == 0 ? allocation : (after - before) * 100 / before > maxRegression) {
+                regressions.add(key);
+            }
+        });
+        return regressions;
+    }
+
+    /**
+     * Чтение эталонных результатов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param path путь до файла с результатами
+     * @return результаты по ключам
+     */
+    private static Map<String, String> load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, String> values = new TreeMap<>();
+        properties.stringPropertyNames().forEach(name -> values.put(name, properties.getProperty(name)));
+        return values;
+    }
+
+    /**
+     * Сохранение результатов как эталонных.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param path   путь до файла с результатами
+     * @param values результаты по ключам
+     */
+    private static void save(Path path, Map<String, String> values) throws IOException {
+        Properties properties = new Properties();
+        properties.putAll(values);
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            properties.store(writer, "JMH baseline: average time in ms/op (score) and bytes allocated per op (alloc)");
+        }
+    }
+}
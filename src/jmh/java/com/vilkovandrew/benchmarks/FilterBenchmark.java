@@ -0,0 +1,157 @@
+package com.vilkovandrew.benchmarks;
+
+import com.vilkovandrew.yandex.market.helpers.CheckBoxFilter;
+import com.vilkovandrew.yandex.market.helpers.Product;
+import com.vilkovandrew.yandex.market.helpers.ProductBatch;
+import com.vilkovandrew.yandex.market.helpers.RangeFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Замеры проверки соответствия товаров фильтрам.
+ *
+ * @author Вилков Андрей
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+    /**
+     * Количество товаров в наборе
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * Набор товаров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private List<Product> products;
+
+    /**
+     * Фильтр по производителю с одним значением
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private CheckBoxFilter singleVendor;
+
+    /**
+     * Фильтр по производителю с несколькими значениями
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private CheckBoxFilter manyVendors;
+
+    /**
+     * Фильтр по цене
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private RangeFilter price;
+
+    /**
+     * Набор товаров, хранящийся по столбцам
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private ProductBatch batch;
+
+    /**
+     * Создание набора товаров и фильтров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Setup
+    public void setUp() {
+        products = ProductData.generate(size, 42);
+        singleVendor = new CheckBoxFilter("Производитель", Product::getHeader, "Apple");
+        manyVendors = new CheckBoxFilter("Производитель", Product::getHeader, "Google", "OnePlus", "Black Shark", "Apple");
+        price = new RangeFilter("Цена", ProductBatch.PRICE, 20_000, 90_000);
+        batch = ProductBatch.of(products);
+    }
+
+    /**
+     * Проверка всех товаров фильтром с одним значением.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return количество подходящих товаров
+     */
+    @Benchmark
+    public int checkBoxSingleValue() {
+        return count(singleVendor::isMatches);
+    }
+
+    /**
+     * Проверка всех товаров фильтром с несколькими значениями.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return количество подходящих товаров
+     */
+    @Benchmark
+    public int checkBoxManyValues() {
+        return count(manyVendors::isMatches);
+    }
+
+    /**
+     * Проверка всех товаров фильтром диапазона.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return количество подходящих товаров
+     */
+    @Benchmark
+    public int range() {
+        return count(price::isMatches);
+    }
+
+    /**
+     * Проверка всех товаров фильтром диапазона по столбцу цен.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return количество подходящих товаров
+     */
+    @Benchmark
+    public int rangeBatch() {
+        return size - price.countMismatches(batch);
+    }
+
+    /**
+     * Подсчёт товаров, подходящих под условие.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filter условие
+     * @return количество подходящих товаров
+     */
+    private int count(Predicate<Product> filter) {
+        int matches = 0;
+        for (Product product : products) {
+            if (filter.test(product)) matches++;
+        }
+        return matches;
+    }
+}
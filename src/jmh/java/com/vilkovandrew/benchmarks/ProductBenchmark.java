@@ -0,0 +1,105 @@
+package com.vilkovandrew.benchmarks;
+
+import com.vilkovandrew.yandex.market.helpers.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замеры сравнения товаров и вычисления их хэш-кодов.
+ *
+ * @author Вилков Андрей
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductBenchmark {
+    /**
+     * Количество товаров в наборе
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * Набор товаров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private List<Product> products;
+
+    /**
+     * Копии товаров набора: новые экземпляры товаров и строк с теми же значениями полей
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private List<Product> copies;
+
+    /**
+     * Создание наборов товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Setup
+    public void setUp() {
+        products = ProductData.generate(size, 42);
+        copies = ProductData.copies(products);
+    }
+
+    /**
+     * Вычисление хэш-кодов всех товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param blackhole потребитель результатов
+     */
+    @Benchmark
+    public void hashCodes(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(product.hashCode());
+        }
+    }
+
+    /**
+     * Попарное сравнение товаров набора с их копиями.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param blackhole потребитель результатов
+     */
+    @Benchmark
+    public void equalsCopies(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(products.get(i).equals(copies.get(i)));
+        }
+    }
+
+    /**
+     * Удаление повторов из набора товаров, как при сборе товаров с нескольких страниц.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return множество уникальных товаров
+     */
+    @Benchmark
+    public Set<Product> deduplicate() {
+        Set<Product> unique = new HashSet<>(products);
+        unique.addAll(copies);
+        return unique;
+    }
+}
@@ -0,0 +1,72 @@
+package com.vilkovandrew.benchmarks;
+
+import com.vilkovandrew.yandex.market.helpers.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.String.format;
+
+/**
+ * Вспомогательный класс для создания синтетических наборов товаров.
+ *
+ * @author Вилков Андрей
+ */
+public class ProductData {
+    /**
+     * Производители, встречающиеся в заголовках товаров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static final String[] VENDORS = {"Apple", "ASUS", "Black Shark", "OnePlus", "Google", "Samsung", "Xiaomi", "Realme"};
+
+    /**
+     * Создание набора товаров, похожих на товары со страницы результатов поиска.
+     * <p>
+     * Каждый десятый товар без цены, ссылки содержат параметры как на сайте.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param size количество товаров
+     * @param seed начальное значение генератора случайных чисел
+     * @return список товаров
+     */
+    public static List<Product> generate(int size, long seed) {
+        Random random = new Random(seed);
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String vendor = VENDORS[random.nextInt(VENDORS.length)];
+            String header = format("Смартфон %s Model %d %d/%d ГБ, черный", vendor, random.nextInt(100), 4 << random.nextInt(3), 64 << random.nextInt(3));
+            String link = format("https://market.yandex.ru/product--smartfon-%d/%d?sku=%d&cpc=%s&do-waremd5=%s",
+                    i, 1_000_000 + i, random.nextLong() & Long.MAX_VALUE, Long.toHexString(random.nextLong()), Long.toHexString(random.nextLong()));
+            int price = i % 10 == 0 ? Product.NO_PRICE : 5_000 + random.nextInt(150_000);
+            products.add(new Product(header, link, price));
+        }
+        return products;
+    }
+
+    /**
+     * Создание копий товаров.
+     * <p>
+     * Копии и их строки - новые экземпляры с теми же значениями, чтобы сравнение не завершалось
+     * на совпадении ссылок на объекты.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param products товары
+     * @return копии товаров в том же порядке
+     */
+    public static List<Product> copies(List<Product> products) {
+        List<Product> copies = new ArrayList<>(products.size());
+        for (Product product : products) {
+            copies.add(new Product(new String(product.getHeader()), new String(product.getLink()), product.getPrice()));
+        }
+        return copies;
+    }
+}
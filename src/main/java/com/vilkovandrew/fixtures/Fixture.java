@@ -0,0 +1,221 @@
+package com.vilkovandrew.fixtures;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Класс представляющий записанный ответ сайта.
+ *
+ * @author Вилков Андрей
+ */
+public class Fixture {
+    /**
+     * HTTP метод запроса
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String method;
+    /**
+     * Полная ссылка запроса
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String url;
+    /**
+     * Хеш тела запроса, пустая строка для запросов без тела
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String bodyHash;
+    /**
+     * Код ответа
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final int status;
+    /**
+     * Тип содержимого ответа
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String contentType;
+    /**
+     * Адрес перенаправления для ответов 3xx
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String location;
+    /**
+     * Имя файла с телом ответа
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String file;
+
+    /**
+     * Конструктор класса {@link Fixture}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param method      HTTP метод запроса
+     * @param url         полная ссылка запроса
+     * @param bodyHash    хеш тела запроса {@link FixtureStore#bodyHash(byte[])}
+     * @param status      код ответа
+     * @param contentType тип содержимого ответа
+     * @param location    адрес перенаправления, null если ответ не является перенаправлением
+     * @param file        имя файла с телом ответа
+     */
+    public Fixture(String method, String url, String bodyHash, int status, String contentType, String location, String file) {
+        this.method = method;
+        this.url = url;
+        this.bodyHash = bodyHash;
+        this.status = status;
+        this.contentType = contentType;
+        this.location = location;
+        this.file = file;
+    }
+
+    /**
+     * Конструктор класса {@link Fixture} из записи индекса.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param values значения полей записи
+     */
+    public Fixture(Map<String, Object> values) {
+        this((String) values.get("method"),
+                (String) values.get("url"),
+                Objects.toString(values.get("bodyHash"), ""),
+                ((Number) values.get("status")).intValue(),
+                (String) values.get("contentType"),
+                (String) values.get("location"),
+                (String) values.get("file"));
+    }
+
+    /**
+     * Получение записи индекса для сохранения.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return значения полей записи
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("method", method);
+        values.put("url", url);
+        values.put("bodyHash", bodyHash);
+        values.put("status", status);
+        values.put("contentType", contentType);
+        values.put("location", location);
+        values.put("file", file);
+        return values;
+    }
+
+    /**
+     * Получение HTTP метода запроса.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return HTTP метод
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Получение полной ссылки запроса.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return ссылка запроса
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Получение хеша тела запроса.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return хеш тела запроса, пустая строка для запросов без тела
+     */
+    public String getBodyHash() {
+        return bodyHash;
+    }
+
+    /**
+     * Получение кода ответа.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return код ответа
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Получение типа содержимого ответа.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return тип содержимого
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Получение адреса перенаправления.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return адрес перенаправления или null
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Получение имени файла с телом ответа.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return имя файла
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Получение хоста ссылки запроса.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return хост
+     */
+    public String getHost() {
+        return URI.create(url).getHost();
+    }
+}
@@ -0,0 +1,30 @@
+package com.vilkovandrew.fixtures;
+
+/**
+ * Класс предоставляющий режимы работы с записанными ответами сайта
+ *
+ * @author Вилков Андрей
+ */
+public enum FixtureMode {
+    /**
+     * Работа с сайтом без записи ответов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    OFF,
+    /**
+     * Запись всех ответов, полученных браузером
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    RECORD,
+    /**
+     * Выдача записанных ответов локальным HTTP сервером
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    REPLAY;
+}
@@ -0,0 +1,254 @@
+package com.vilkovandrew.fixtures;
+
+import com.vilkovandrew.helpers.Assertions;
+import com.vilkovandrew.helpers.Cdp;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.codeborne.selenide.Selenide.webdriver;
+
+/**
+ * Класс для записи ответов, получаемых браузером, через события сети Chrome DevTools Protocol.
+ * <p>
+ * Обработчики событий только запоминают параметры завершённых запросов: команды DevTools для получения тел
+ * выполняются отдельным потоком, чтобы не задерживать доставку следующих событий сессии.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class FixtureRecorder {
+    /**
+     * Драйверы, для которых запись уже включена
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Set<WebDriver> ATTACHED = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /**
+     * Поток получения тел запросов и ответов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final ExecutorService FETCHER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "fixture-recorder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Записи ответов, ещё не сохранённые в каталог
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Queue<Future<?>> PENDING = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Включение записи ответов для драйвера текущего потока.
+     * <p>
+     * Повторный вызов для того же драйвера ничего не делает.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param store каталог, в который записываются ответы
+     */
+    public static void attach(FixtureStore store) {
+        if (!Cdp.isSupported() || !ATTACHED.add(webdriver().object())) return;
+
+        DevTools devTools = Cdp.devTools();
+        Map<String, Map<String, Object>> requests = new ConcurrentHashMap<>();
+        Map<String, Map<String, Object>> responses = new ConcurrentHashMap<>();
+
+        Cdp.on("Network.requestWillBeSent", params -> {
+            String requestId = (String) params.get("requestId");
+            Map<String, Object> redirect = map(params, "redirectResponse");
+            Map<String, Object> previous = requests.get(requestId);
+            if (redirect != null && previous != null && isHttp(previous)) {
+                PENDING.add(FETCHER.submit(() -> store.add((String) previous.get("method"), (String) previous.get("url"),
+                        requestBodyHash(devTools, requestId, previous),
+                        status(redirect), contentType(redirect), header(redirect, "location"), new byte[0])));
+            }
+            requests.put(requestId, map(params, "request"));
+        });
+        Cdp.on("Network.responseReceived", params ->
+                responses.put((String) params.get("requestId"), map(params, "response")));
+        Cdp.on("Network.loadingFailed", params -> {
+            requests.remove((String) params.get("requestId"));
+            responses.remove((String) params.get("requestId"));
+        });
+        Cdp.on("Network.loadingFinished", params -> {
+            String requestId = (String) params.get("requestId");
+            Map<String, Object> request = requests.remove(requestId);
+            Map<String, Object> response = responses.remove(requestId);
+            if (request == null || response == null || !isHttp(request)) return;
+            PENDING.add(FETCHER.submit(() -> store.add((String) request.get("method"), (String) request.get("url"),
+                    requestBodyHash(devTools, requestId, request),
+                    status(response), contentType(response), null, body(devTools, requestId))));
+        });
+        Cdp.send("Network.enable", Map.of());
+    }
+
+    /**
+     * Ожидание записи в каталог всех ответов, завершённых к моменту вызова.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static void flush() {
+        Future<?> pending;
+        while ((pending = PENDING.poll()) != null) {
+            try {
+                pending.get();
+            } catch (ExecutionException e) {
+                Assertions.fail("Не удалось записать ответ сайта", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Получение тела ответа.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param devTools  сессия DevTools
+     * @param requestId идентификатор запроса
+     * @return тело ответа, пустой массив если тело недоступно
+     */
+    private static byte[] body(DevTools devTools, String requestId) {
+        try {
+            Map<String, Object> result = Cdp.send(devTools, "Network.getResponseBody", Map.of("requestId", requestId));
+            String body = Objects.toString(result.get("body"), "");
+            return Boolean.TRUE.equals(result.get("base64Encoded"))
+                    ? Base64.getDecoder().decode(body)
+                    : body.getBytes(StandardCharsets.UTF_8);
+        } catch (WebDriverException e) {
+            return new byte[0];
+        }
+    }
+
+    /**
+     * Получение хеша тела запроса.
+     * <p>
+     * Тело берётся из поля postData события, а если браузер не передал его в событии из-за размера -
+     * командой {@literal Network.getRequestPostData}.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param devTools  сессия DevTools
+     * @param requestId идентификатор запроса
+     * @param request   параметры запроса
+     * @return хеш тела запроса {@link FixtureStore#bodyHash(byte[])}
+     */
+    private static String requestBodyHash(DevTools devTools, String requestId, Map<String, Object> request) {
+        Object postData = request.get("postData");
+        if (postData == null && Boolean.TRUE.equals(request.get("hasPostData"))) {
+            try {
+                postData = Cdp.send(devTools, "Network.getRequestPostData", Map.of("requestId", requestId)).get("postData");
+            } catch (WebDriverException e) {
+                // тело запроса уже недоступно
+            }
+        }
+        return postData == null ? "" : FixtureStore.bodyHash(postData.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Проверка что запрос выполнен по протоколу HTTP(S).
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param request параметры запроса
+     * @return true для запросов HTTP(S)
+     */
+    private static boolean isHttp(Map<String, Object> request) {
+        return Objects.toString(request.get("url"), "").startsWith("http");
+    }
+
+    /**
+     * Получение кода ответа.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param response параметры ответа
+     * @return код ответа
+     */
+    private static int status(Map<String, Object> response) {
+        return ((Number) response.get("status")).intValue();
+    }
+
+    /**
+     * Получение типа содержимого ответа.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param response параметры ответа
+     * @return значение заголовка {@literal Content-Type} или тип из параметров ответа
+     */
+    private static String contentType(Map<String, Object> response) {
+        String header = header(response, "content-type");
+        return header != null ? header : (String) response.get("mimeType");
+    }
+
+    /**
+     * Получение значения заголовка ответа без учёта регистра имени.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param response параметры ответа
+     * @param name     имя заголовка
+     * @return значение заголовка или null
+     */
+    private static String header(Map<String, Object> response, String name) {
+        Map<String, Object> headers = map(response, "headers");
+        if (headers == null) return null;
+        return headers.entrySet().stream()
+                .filter(e -> e.getKey().equalsIgnoreCase(name))
+                .map(e -> Objects.toString(e.getValue()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Получение вложенного объекта из параметров события.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param params параметры события
+     * @param name   имя поля
+     * @return вложенный объект или null
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Map<String, Object> params, String name) {
+        return (Map<String, Object>) params.get(name);
+    }
+}
@@ -0,0 +1,209 @@
+package com.vilkovandrew.fixtures;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+import static java.lang.String.format;
+
+/**
+ * Класс представляющий локальный HTTP сервер, отдающий записанные ответы сайта.
+ * <p>
+ * Запросы к основному хосту обслуживаются от корня сервера, запросы к остальным хостам -
+ * по пути {@literal /__host/<хост>/...}. Ссылки на записанные хосты в текстовых ответах
+ * переписываются на адрес сервера. На запрос без записанного ответа сервер отвечает 404.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class FixtureServer {
+    /**
+     * Журнал сервера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(FixtureServer.class);
+
+    /**
+     * Префикс пути для запросов к дополнительным хостам
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String HOST_PREFIX = "/__host/";
+
+    /**
+     * Каталог с записанными ответами
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final FixtureStore store;
+    /**
+     * Основной хост записанного сайта
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String originHost;
+    /**
+     * Адрес локального сервера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String baseUrl;
+    /**
+     * HTTP сервер
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final HttpServer server;
+
+    /**
+     * Конструктор класса {@link FixtureServer}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param store      каталог с записанными ответами
+     * @param originHost основной хост записанного сайта
+     * @param port       порт локального сервера
+     */
+    public FixtureServer(FixtureStore store, String originHost, int port) {
+        this.store = store;
+        this.originHost = originHost;
+        this.baseUrl = format("http://localhost:%d", port);
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(format("Не удалось запустить сервер записанных ответов на порту %d", port), e);
+        }
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "fixture-server");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Запуск сервера.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Остановка сервера.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * Обработка запроса браузера.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param exchange запрос и ответ
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getRawPath();
+        String query = exchange.getRequestURI().getRawQuery();
+        String host = originHost;
+        if (path.startsWith(HOST_PREFIX)) {
+            String rest = path.substring(HOST_PREFIX.length());
+            int slash = rest.indexOf('/');
+            host = slash < 0 ? rest : rest.substring(0, slash);
+            path = slash < 0 ? "/" : rest.substring(slash);
+        }
+        String url = format("https://%s%s%s", host, path, query == null ? "" : "?" + query);
+
+        byte[] requestBody;
+        try (InputStream stream = exchange.getRequestBody()) {
+            requestBody = stream.readAllBytes();
+        }
+
+        Optional<Fixture> fixture = store.find(exchange.getRequestMethod(), url, FixtureStore.bodyHash(requestBody));
+        if (fixture.isEmpty()) {
+            LOG.warn("Нет записанного ответа на запрос {} {} с телом {} байт", exchange.getRequestMethod(), url, requestBody.length);
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+
+        Fixture response = fixture.get();
+        byte[] body = store.body(response);
+        if (response.getContentType() != null) {
+            exchange.getResponseHeaders().set("Content-Type", response.getContentType());
+            if (isText(response.getContentType())) {
+                body = rewrite(new String(body, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        if (response.getLocation() != null) {
+            exchange.getResponseHeaders().set("Location", rewrite(response.getLocation()));
+        }
+        exchange.sendResponseHeaders(response.getStatus(), body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream stream = exchange.getResponseBody()) {
+                stream.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    /**
+     * Замена ссылок на записанные хосты ссылками на локальный сервер.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param text текст ответа
+     * @return текст с заменёнными ссылками
+     */
+    private String rewrite(String text) {
+        String result = text;
+        for (String host : store.hosts()) {
+            String local = host.equals(originHost) ? baseUrl : baseUrl + HOST_PREFIX + host;
+            result = result
+                    .replace("https://" + host, local)
+                    .replace("http://" + host, local)
+                    .replace("https:\\/\\/" + host, local.replace("/", "\\/"))
+                    .replace("//" + host, local.substring("http:".length()));
+        }
+        return result;
+    }
+
+    /**
+     * Проверка что ответ содержит текст, в котором могут быть ссылки.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param contentType тип содержимого ответа
+     * @return true для HTML, JavaScript, JSON, CSS и прочих текстовых ответов
+     */
+    private static boolean isText(String contentType) {
+        String type = contentType.toLowerCase();
+        return type.startsWith("text/") || type.contains("javascript") || type.contains("json") || type.contains("xml");
+    }
+}
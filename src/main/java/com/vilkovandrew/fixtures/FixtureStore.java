@@ -0,0 +1,254 @@
+package com.vilkovandrew.fixtures;
+
+import com.vilkovandrew.helpers.Assertions;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Класс представляющий каталог с записанными ответами сайта.
+ * <p>
+ * Тела ответов хранятся в отдельных файлах, описание ответов - в файле {@literal index.json}.
+ * Ответ определяется методом, ссылкой и хешем тела запроса, поэтому запросы POST с разными телами
+ * к одной ссылке записываются отдельно. Из ссылки в ключе исключаются изменчивые параметры запроса,
+ * например метки времени и идентификаторы запросов, которые отличаются при каждой загрузке страницы.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class FixtureStore {
+    /**
+     * Имя файла с описанием записанных ответов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String INDEX_FILE = "index.json";
+
+    /**
+     * Каталог с записанными ответами
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Path directory;
+
+    /**
+     * Записанные ответы по ключу {@literal метод ссылка хеш тела}
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Map<String, Fixture> fixtures = new LinkedHashMap<>();
+
+    /**
+     * Имена изменчивых параметров запроса, не учитываемых в ключе
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Set<String> volatileParams;
+
+    /**
+     * Конструктор класса {@link FixtureStore}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param directory      каталог с записанными ответами
+     * @param volatileParams имена изменчивых параметров запроса, не учитываемых при поиске ответа
+     */
+    public FixtureStore(Path directory, Collection<String> volatileParams) {
+        this.directory = directory;
+        this.volatileParams = new HashSet<>(volatileParams);
+        Path index = directory.resolve(INDEX_FILE);
+        if (Files.exists(index)) {
+            try {
+                List<Map<String, Object>> entries = new Json().toType(Files.readString(index, StandardCharsets.UTF_8), Json.LIST_OF_MAPS_TYPE);
+                entries.forEach(entry -> {
+                    Fixture fixture = new Fixture(entry);
+                    fixtures.put(key(fixture.getMethod(), fixture.getUrl(), fixture.getBodyHash()), fixture);
+                });
+            } catch (IOException e) {
+                Assertions.fail(format("Не удалось прочитать записанные ответы из '%s'", index), e);
+            }
+        }
+    }
+
+    /**
+     * Сохранение ответа.
+     * <p>
+     * Повторный ответ на тот же запрос заменяет ранее записанный.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param method      HTTP метод запроса
+     * @param url         полная ссылка запроса
+     * @param bodyHash    хеш тела запроса {@link #bodyHash(byte[])}
+     * @param status      код ответа
+     * @param contentType тип содержимого ответа
+     * @param location    адрес перенаправления или null
+     * @param body        тело ответа
+     */
+    public synchronized void add(String method, String url, String bodyHash, int status, String contentType, String location, byte[] body) {
+        String key = key(method, url, bodyHash);
+        Fixture previous = fixtures.get(key);
+        String file = previous != null ? previous.getFile() : format("%06d.bin", fixtures.size());
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(file), body);
+        } catch (IOException e) {
+            Assertions.fail(format("Не удалось записать ответ на запрос '%s'", url), e);
+        }
+        fixtures.put(key, new Fixture(method, url, bodyHash, status, contentType, location, file));
+    }
+
+    /**
+     * Поиск записанного ответа на запрос.
+     * <p>
+     * Ответ ищется по точному совпадению метода, ссылки без изменчивых параметров и тела запроса:
+     * ответ на похожий запрос, например на другую страницу результатов, был бы неверным ответом.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param method   HTTP метод запроса
+     * @param url      полная ссылка запроса
+     * @param bodyHash хеш тела запроса {@link #bodyHash(byte[])}
+     * @return найденный ответ
+     */
+    public synchronized Optional<Fixture> find(String method, String url, String bodyHash) {
+        return Optional.ofNullable(fixtures.get(key(method, url, bodyHash)));
+    }
+
+    /**
+     * Чтение тела записанного ответа.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param fixture записанный ответ
+     * @return тело ответа
+     */
+    public byte[] body(Fixture fixture) {
+        try {
+            return Files.readAllBytes(directory.resolve(fixture.getFile()));
+        } catch (IOException e) {
+            Assertions.fail(format("Не удалось прочитать ответ на запрос '%s'", fixture.getUrl()), e);
+        }
+        return new byte[0];
+    }
+
+    /**
+     * Получение хостов, ответы которых записаны.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return множество хостов
+     */
+    public synchronized Set<String> hosts() {
+        Set<String> hosts = new TreeSet<>();
+        fixtures.values().forEach(fixture -> hosts.add(fixture.getHost()));
+        return hosts;
+    }
+
+    /**
+     * Сохранение описания записанных ответов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public synchronized void save() {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        fixtures.values().forEach(fixture -> entries.add(fixture.toMap()));
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve(INDEX_FILE), new Json().toJson(entries), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Assertions.fail(format("Не удалось сохранить записанные ответы в '%s'", directory), e);
+        }
+    }
+
+    /**
+     * Получение хеша тела запроса.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param body тело запроса или null
+     * @return SHA-256 тела в шестнадцатеричном виде, пустая строка для запроса без тела
+     */
+    public static String bodyHash(byte[] body) {
+        if (body == null || body.length == 0) return "";
+        try {
+            StringBuilder hash = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(body)) {
+                hash.append(format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Алгоритм SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Получение ключа записанного ответа.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param method   HTTP метод запроса
+     * @param url      полная ссылка запроса
+     * @param bodyHash хеш тела запроса
+     * @return ключ
+     */
+    private String key(String method, String url, String bodyHash) {
+        String key = method.toUpperCase() + " " + stripVolatileParams(url);
+        return bodyHash == null || bodyHash.isEmpty() ? key : key + " " + bodyHash;
+    }
+
+    /**
+     * Удаление из ссылки изменчивых параметров запроса.
+     * <p>
+     * Порядок остальных параметров сохраняется.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param url полная ссылка запроса
+     * @return ссылка без изменчивых параметров
+     */
+    private String stripVolatileParams(String url) {
+        int start = url.indexOf('?');
+        if (start < 0 || volatileParams.isEmpty()) return url;
+        int end = url.indexOf('#', start);
+        String query = end < 0 ? url.substring(start + 1) : url.substring(start + 1, end);
+        String kept = Arrays.stream(query.split("&"))
+                .filter(param -> !volatileParams.contains(param.split("=", 2)[0]))
+                .collect(Collectors.joining("&"));
+        return kept.isEmpty() ? url.substring(0, start) : url.substring(0, start) + "?" + kept;
+    }
+}
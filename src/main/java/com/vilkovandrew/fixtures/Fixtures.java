@@ -0,0 +1,88 @@
+package com.vilkovandrew.fixtures;
+
+import com.vilkovandrew.helpers.Properties;
+
+import java.nio.file.Path;
+
+/**
+ * Класс для подключения записи и воспроизведения ответов сайта к тестам.
+ *
+ * @author Вилков Андрей
+ * @see FixtureMode
+ */
+public class Fixtures {
+    /**
+     * Каталог с записанными ответами
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static FixtureStore store;
+    /**
+     * Локальный сервер записанных ответов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static FixtureServer server;
+
+    /**
+     * Подготовка записи или воспроизведения ответов перед тестом.
+     * <p>
+     * В режиме записи включается запись ответов для драйвера текущего потока,
+     * в режиме воспроизведения запускается локальный сервер, если он ещё не запущен.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static synchronized void beforeTest() {
+        switch (Properties.appProperties.getFixtureMode()) {
+            case RECORD:
+                FixtureRecorder.attach(store());
+                break;
+            case REPLAY:
+                if (server == null) {
+                    server = new FixtureServer(store(), Properties.appProperties.getFixtureOrigin(),
+                            Properties.appProperties.getFixturePort());
+                    server.start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Сохранение записанных ответов после теста.
+     * <p>
+     * Перед сохранением ожидается получение тел всех ответов, завершённых к этому моменту.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static synchronized void afterTest() {
+        if (Properties.appProperties.getFixtureMode() == FixtureMode.RECORD) {
+            FixtureRecorder.flush();
+            store().save();
+        }
+    }
+
+    /**
+     * Получение каталога с записанными ответами.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return каталог с записанными ответами
+     */
+    private static FixtureStore store() {
+        if (store == null) {
+            store = new FixtureStore(Path.of(Properties.appProperties.getFixtureDir()),
+                    Properties.appProperties.getFixtureVolatileParams());
+        }
+        return store;
+    }
+}
@@ -0,0 +1,276 @@
+package com.vilkovandrew.helpers;
+
+import com.codeborne.selenide.Configuration;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Вспомогательный класс для времени ожидания, вычисляемого по наблюдаемой длительности ожиданий.
+ * <p>
+ * Для каждого ключа (локатора и условия ожидания) хранятся последние timeout.window длительностей успешных
+ * ожиданий, которым пришлось опрашивать условие. Ожидание, выполненное при первой проверке быстрее интервала
+ * опроса {@link Configuration#pollingInterval}, не учитывается: такие длительности близки к нулю и сдвигали бы
+ * перцентиль к нижней границе, хотя на них время ожидания не влияет. Время ожидания равно перцентилю 99.9 этих длительностей, умноженному на timeout.factor,
+ * и ограничено снизу timeout.floor_ms и сверху потолком ключа. Пока длительностей меньше timeout.min_samples,
+ * используется потолок. Ожидание, не дождавшееся условия, учитывается с длительностью, равной времени ожидания,
+ * чтобы слишком малое время ожидания увеличивалось. Длительности сохраняются в файл timeout.stats_file
+ * при завершении JVM и загружаются из него при следующем запуске.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class AdaptiveTimeouts {
+    /**
+     * Ключ времени загрузки страницы
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static final String PAGE_LOAD = "page load";
+
+    /**
+     * Потолок времени загрузки страницы
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static final Duration PAGE_LOAD_CEILING = Duration.ofSeconds(120);
+
+    /**
+     * Длительности ожиданий по ключу
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<String, Samples> SAMPLES = new ConcurrentHashMap<>();
+
+    /**
+     * Журнал загрузки и сохранения длительностей
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveTimeouts.class);
+
+    static {
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(AdaptiveTimeouts::save, "adaptive-timeouts"));
+    }
+
+    /**
+     * Получение времени ожидания с потолком по умолчанию timeout.ceiling_ms.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param key ключ ожидания
+     * @return время ожидания
+     */
+    public static Duration timeout(String key) {
+        return timeout(key, Duration.ofMillis(Properties.appProperties.getTimeoutCeilingMillis()));
+    }
+
+    /**
+     * Получение времени ожидания.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param key     ключ ожидания
+     * @param ceiling максимальное время ожидания
+     * @return время ожидания
+     */
+    public static Duration timeout(String key, Duration ceiling) {
+        Samples samples = SAMPLES.get(key);
+        if (!Properties.appProperties.getTimeoutAdaptive() || samples == null
+                || samples.size() < Properties.appProperties.getTimeoutMinSamples()) {
+            return ceiling;
+        }
+        long millis = (long) Math.ceil(samples.percentile(99.9) * Properties.appProperties.getTimeoutFactor());
+        long floor = Math.min(Properties.appProperties.getTimeoutFloorMillis(), ceiling.toMillis());
+        return Duration.ofMillis(Math.max(floor, Math.min(ceiling.toMillis(), millis)));
+    }
+
+    /**
+     * Ожидание с временем ожидания по ключу и учётом его длительности.
+     * <p>
+     * Длительность учитывается, только если условие опрашивалось, то есть ожидание заняло не меньше
+     * интервала опроса {@link Configuration#pollingInterval}.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param key  ключ ожидания
+     * @param wait ожидание, получающее время ожидания
+     * @param <T>  тип результата ожидания
+     * @return результат ожидания
+     */
+    public static <T> T await(String key, Function<Duration, T> wait) {
+        Duration timeout = timeout(key);
+        long started = System.nanoTime();
+        try {
+            T result = wait.apply(timeout);
+            long elapsed = (System.nanoTime() - started) / 1_000_000;
+            if (elapsed >= Configuration.pollingInterval) {
+                record(key, elapsed);
+            }
+            return result;
+        } catch (RuntimeException | AssertionError e) {
+            long elapsed = (System.nanoTime() - started) / 1_000_000;
+            if (elapsed >= timeout.toMillis()) {
+                record(key, timeout.toMillis());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Учёт длительности ожидания.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param key    ключ ожидания
+     * @param millis длительность в мс
+     */
+    public static void record(String key, long millis) {
+        SAMPLES.computeIfAbsent(key, name -> new Samples()).add(Math.max(0, millis));
+    }
+
+    /**
+     * Загрузка длительностей, сохранённых предыдущим запуском.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static void load() {
+        Path file = Path.of(Properties.appProperties.getTimeoutStatsFile());
+        if (!Files.exists(file)) return;
+        try {
+            Map<String, Object> stored = new Json().toType(Files.readString(file, StandardCharsets.UTF_8), Json.MAP_TYPE);
+            stored.forEach((key, values) -> {
+                if (!(values instanceof List)) return;
+                for (Object value : (List<?>) values) {
+                    if (value instanceof Number) record(key, ((Number) value).longValue());
+                }
+            });
+        } catch (IOException | JsonException e) {
+            LOG.warn("Не удалось прочитать длительности ожиданий из '{}'", file, e);
+        }
+    }
+
+    /**
+     * Сохранение длительностей для следующего запуска.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static void save() {
+        if (SAMPLES.isEmpty()) return;
+        Map<String, Object> stored = new TreeMap<>();
+        SAMPLES.forEach((key, samples) -> stored.put(key, Arrays.stream(samples.values()).boxed().collect(Collectors.toList())));
+        Path file = Path.of(Properties.appProperties.getTimeoutStatsFile());
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            Files.writeString(file, new Json().toJson(stored), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOG.warn("Не удалось записать длительности ожиданий в '{}'", file, e);
+        }
+    }
+
+    /**
+     * Последние длительности ожиданий одного ключа.
+     *
+     * @author Вилков Андрей
+     */
+    private static class Samples {
+        /**
+         * Кольцевой буфер длительностей в мс
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final long[] values = new long[Math.max(1, Properties.appProperties.getTimeoutWindow())];
+
+        /**
+         * Количество учтённых длительностей
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private long count;
+
+        /**
+         * Учёт длительности с вытеснением самой старой при заполненном буфере.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param millis длительность в мс
+         */
+        private synchronized void add(long millis) {
+            values[(int) (count++ % values.length)] = millis;
+        }
+
+        /**
+         * Получение количества хранимых длительностей.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return количество длительностей
+         */
+        private synchronized int size() {
+            return (int) Math.min(count, values.length);
+        }
+
+        /**
+         * Получение хранимых длительностей от самой старой к самой новой.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return длительности в мс
+         */
+        private synchronized long[] values() {
+            int size = size();
+            long[] ordered = new long[size];
+            for (int i = 0; i < size; i++) {
+                ordered[i] = values[(int) ((count - size + i) % values.length)];
+            }
+            return ordered;
+        }
+
+        /**
+         * Получение перцентиля хранимых длительностей.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param percentile перцентиль от 0 до 100
+         * @return длительность в мс
+         */
+        private long percentile(double percentile) {
+            long[] sorted = values();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+}
@@ -1,6 +1,14 @@
 package com.vilkovandrew.helpers;
 
+import com.vilkovandrew.fixtures.FixtureMode;
+import com.vilkovandrew.yandex.market.helpers.ExtractionMode;
+import com.vilkovandrew.yandex.market.helpers.FilterApplyMode;
+import com.vilkovandrew.yandex.market.helpers.ReportMode;
+import com.vilkovandrew.yandex.market.helpers.ValidationMode;
 import org.aeonbits.owner.Config;
+import org.openqa.selenium.PageLoadStrategy;
+
+import java.util.List;
 
 /**
  * Вспомогательный интерфейс для работы со свойствами.
@@ -56,4 +64,613 @@ public interface AppProperties extends Config {
      */
     @Key("screenshot.strategy")
     String getScreenshotStrategy();
+
+    /**
+     * Получение способа получения данных о товарах со страницы
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает {@link ExtractionMode} способ получения данных о товарах
+     */
+    @Key("product.extraction.mode")
+    @DefaultValue("BATCH")
+    ExtractionMode getProductExtractionMode();
+
+    /**
+     * Получение способа проверки товаров на страницах результатов поиска
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает {@link ValidationMode} способ проверки товаров
+     */
+    @Key("validation.mode")
+    @DefaultValue("SEQUENTIAL")
+    ValidationMode getValidationMode();
+
+    /**
+     * Получение количества сессий браузера для параллельной проверки страниц
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает количество одновременно открытых сессий браузера
+     */
+    @Key("validation.pool_size")
+    @DefaultValue("4")
+    int getValidationPoolSize();
+
+    /**
+     * Получение времени жизни сессии браузера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает {@link SessionLifecycle} время жизни сессии браузера
+     */
+    @Key("session.lifecycle")
+    @DefaultValue("JVM")
+    SessionLifecycle getSessionLifecycle();
+
+    /**
+     * Получение режима работы с записанными ответами сайта
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает {@link FixtureMode} режим записи или воспроизведения ответов
+     */
+    @Key("fixture.mode")
+    @DefaultValue("OFF")
+    FixtureMode getFixtureMode();
+
+    /**
+     * Получение каталога с записанными ответами сайта
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает путь до каталога с записанными ответами
+     */
+    @Key("fixture.dir")
+    @DefaultValue("src/test/resources/fixtures")
+    String getFixtureDir();
+
+    /**
+     * Получение основного хоста записанного сайта
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает хост, запросы к которому обслуживаются от корня локального сервера
+     */
+    @Key("fixture.origin")
+    @DefaultValue("market.yandex.ru")
+    String getFixtureOrigin();
+
+    /**
+     * Получение порта локального сервера записанных ответов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает порт, ссылка на Яндекс Маркет в режиме воспроизведения - {@literal http://localhost:<порт>}
+     */
+    @Key("fixture.port")
+    @DefaultValue("8089")
+    int getFixturePort();
+
+    /**
+     * Получение имён изменчивых параметров запроса
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает имена параметров, которые не учитываются при поиске записанного ответа,
+     * например метки времени и идентификаторы запросов
+     */
+    @Key("fixture.volatile_params")
+    @DefaultValue("_,ts,timestamp,rnd,random,nocache,cb,reqid,request_id,requestId")
+    List<String> getFixtureVolatileParams();
+
+    /**
+     * Получение способа отражения проверки товаров в отчёте
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает {@link ReportMode} способ отражения проверки товаров в отчёте
+     */
+    @Key("report.mode")
+    @DefaultValue("STEPS")
+    ReportMode getReportMode();
+
+    /**
+     * Получение признака фоновой обработки скриншотов шагов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает true если скриншоты сжимаются и прикладываются к отчёту в фоновом потоке
+     */
+    @Key("screenshot.async")
+    @DefaultValue("true")
+    boolean isScreenshotAsync();
+
+    /**
+     * Получение размера очереди фоновой обработки скриншотов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает количество скриншотов, ожидающих обработки, при превышении обработка идёт в потоке теста
+     */
+    @Key("screenshot.queue_size")
+    @DefaultValue("16")
+    int getScreenshotQueueSize();
+
+    /**
+     * Получение максимальной ширины скриншота в отчёте
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает ширину в точках, до которой уменьшаются скриншоты
+     */
+    @Key("screenshot.max_width")
+    @DefaultValue("1280")
+    int getScreenshotMaxWidth();
+
+    /**
+     * Получение качества сжатия скриншотов в JPEG
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает качество от 0 до 1
+     */
+    @Key("screenshot.jpeg_quality")
+    @DefaultValue("0.7")
+    float getScreenshotJpegQuality();
+
+    /**
+     * Получение допустимого отличия перцептивного хэша повторного кадра
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает количество отличающихся бит хэша, при котором кадр считается повтором предыдущего
+     */
+    @Key("screenshot.dedup_distance")
+    @DefaultValue("0")
+    int getScreenshotDedupDistance();
+
+    /**
+     * Получение лимита объёма скриншотов на тест
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает объём в байтах, сверх которого скриншоты успешных шагов не прикладываются
+     */
+    @Key("screenshot.budget_bytes")
+    @DefaultValue("20971520")
+    long getScreenshotBudgetBytes();
+
+    /**
+     * Получение способа ожидания готовности страницы
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает {@link WaitMode} способ ожидания готовности страницы
+     */
+    @Key("wait.mode")
+    @DefaultValue("POLLING")
+    WaitMode getWaitMode();
+
+    /**
+     * Получение времени без сетевой активности, после которого страница считается загруженной
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает время в мс
+     */
+    @Key("wait.network_quiet_ms")
+    @DefaultValue("500")
+    long getWaitNetworkQuietMillis();
+
+    /**
+     * Получение максимального времени ожидания готовности страницы
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает время в мс
+     */
+    @Key("wait.timeout_ms")
+    @DefaultValue("20000")
+    long getWaitTimeoutMillis();
+
+    /**
+     * Получение шаблона ссылки запроса, возвращающего результаты поиска
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает регулярное выражение
+     */
+    @Key("wait.xhr_pattern")
+    @DefaultValue("/api/resolve/")
+    String getWaitXhrPattern();
+
+    /**
+     * Получение шаблона ссылок, запросы по которым не влияют на ожидание отсутствия сетевой активности
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает регулярное выражение, например для запросов метрик
+     */
+    @Key("wait.ignored_urls")
+    @DefaultValue("mc\\.yandex\\.ru|/clck/")
+    String getWaitIgnoredUrls();
+
+    /**
+     * Получение способа установки фильтров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает {@link FilterApplyMode} способ установки фильтров
+     */
+    @Key("filter.apply_mode")
+    @DefaultValue("UI")
+    FilterApplyMode getFilterApplyMode();
+
+    /**
+     * Получение шаблона ссылки ответов сервера с результатами поиска
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает регулярное выражение для режима проверки {@link ValidationMode#INTERCEPT}
+     */
+    @Key("intercept.url_pattern")
+    @DefaultValue("/api/resolve/")
+    String getInterceptUrlPattern();
+
+    /**
+     * Получение пути до списка результатов поиска в ответе сервера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает путь, части пути разделяются точкой, {@literal *} - каждый элемент списка или значение объекта
+     */
+    @Key("intercept.results_path")
+    @DefaultValue("results.*.data.items")
+    String getInterceptResultsPath();
+
+    /**
+     * Получение ключа заголовка товара в ответе сервера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает ключ, части составного ключа разделяются точкой
+     */
+    @Key("intercept.title_key")
+    @DefaultValue("title")
+    String getInterceptTitleKey();
+
+    /**
+     * Получение ключа ссылки на товар в ответе сервера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает ключ, части составного ключа разделяются точкой
+     */
+    @Key("intercept.link_key")
+    @DefaultValue("url")
+    String getInterceptLinkKey();
+
+    /**
+     * Получение ключа цены товара в ответе сервера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает ключ, части составного ключа разделяются точкой
+     */
+    @Key("intercept.price_key")
+    @DefaultValue("price.value")
+    String getInterceptPriceKey();
+
+    /**
+     * Получение режима блокировки ресурсов страницы
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает {@link BlockMode} режим блокировки ресурсов
+     */
+    @Key("block.mode")
+    @DefaultValue("OFF")
+    BlockMode getBlockMode();
+
+    /**
+     * Получение шаблонов ссылок блокируемых запросов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает шаблоны в формате {@literal Network.setBlockedURLs}, символ * - любая последовательность
+     */
+    @Key("block.url_patterns")
+    @DefaultValue("*mc.yandex.ru*,*an.yandex.ru*,*ads.adfox.ru*,*yandex.ru/ads/*,*.woff,*.woff2")
+    List<String> getBlockUrlPatterns();
+
+    /**
+     * Получение типов блокируемых ресурсов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает типы в формате {@literal Network.ResourceType}, например Image, Font, Media
+     */
+    @Key("block.resource_types")
+    @DefaultValue("Image,Font,Media")
+    List<String> getBlockResourceTypes();
+
+    /**
+     * Получение стратегии загрузки страницы
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает {@link PageLoadStrategy} стратегию загрузки, при EAGER готовность страницы
+     * определяется ожиданием загрузки списка товаров
+     */
+    @Key("page.load_strategy")
+    @DefaultValue("NORMAL")
+    PageLoadStrategy getPageLoadStrategy();
+
+    /**
+     * Получение пути к файлу с временем выполнения шагов за запуск
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает путь к JSON файлу с перцентилями длительности шагов
+     */
+    @Key("timing.report_file")
+    @DefaultValue("target/step-timings.json")
+    String getTimingReportFile();
+
+    /**
+     * Получение требуемой уверенности выборочной проверки
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает уверенность от 0 до 1, что доля несоответствующих товаров меньше допустимой
+     */
+    @Key("sampling.confidence")
+    @DefaultValue("0.99")
+    double getSamplingConfidence();
+
+    /**
+     * Получение допустимой доли несоответствующих товаров для выборочной проверки
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает долю от 0 до 1
+     */
+    @Key("sampling.max_violation_rate")
+    @DefaultValue("0.01")
+    double getSamplingMaxViolationRate();
+
+    /**
+     * Получение начального значения генератора случайных чисел выборочной проверки
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает начальное значение, 0 - выбирается случайно и указывается в отчёте
+     */
+    @Key("sampling.seed")
+    @DefaultValue("0")
+    long getSamplingSeed();
+
+    /**
+     * Получение признака предзагрузки следующей страницы результатов поиска во второй вкладке
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * <p>
+     * Сессия DevTools привязана к первой вкладке, поэтому блокировка ресурсов, учёт запросов и перехват ответов
+     * не действуют на страницы, загруженные во второй вкладке.
+     * </p>
+     *
+     * @return возвращает true, если следующая страница загружается во время проверки текущей
+     */
+    @Key("page.prefetch")
+    @DefaultValue("false")
+    boolean getPagePrefetch();
+
+    /**
+     * Получение количества одновременно выполняемых запросов при проверке страниц без браузера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает количество запросов
+     */
+    @Key("http.max_in_flight")
+    @DefaultValue("16")
+    int getHttpMaxInFlight();
+
+    /**
+     * Получение времени ожидания ответа при проверке страниц без браузера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает время ожидания в мс
+     */
+    @Key("http.timeout_ms")
+    @DefaultValue("30000")
+    long getHttpTimeoutMillis();
+
+    /**
+     * Получение пути до файла сценариев проверки фильтров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает путь до CSV файла сценариев
+     */
+    @Key("scenario.file")
+    @DefaultValue("src/test/resources/scenarios.csv")
+    String getScenarioFile();
+
+    /**
+     * Получение пути до файла карты каталога
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает путь до файла со ссылками на разделы категорий каталога, вне target, чтобы карта
+     * сохранялась после mvn clean
+     */
+    @Key("catalog.map_file")
+    @DefaultValue(".cache/catalog-map.json")
+    String getCatalogMapFile();
+
+    /**
+     * Получение времени жизни ссылок карты каталога
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает время в часах, по истечении которого ссылки категории обновляются через каталог
+     */
+    @Key("catalog.map_ttl_hours")
+    @DefaultValue("24")
+    long getCatalogMapTtlHours();
+
+    /**
+     * Получение признака вычисления времени ожидания по наблюдаемой длительности ожиданий
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает true, если время ожидания вычисляется по длительности предыдущих ожиданий, false - всегда используется потолок
+     */
+    @Key("timeout.adaptive")
+    @DefaultValue("true")
+    boolean getTimeoutAdaptive();
+
+    /**
+     * Получение множителя перцентиля 99.9 длительности ожиданий
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает множитель времени ожидания
+     */
+    @Key("timeout.factor")
+    @DefaultValue("3")
+    double getTimeoutFactor();
+
+    /**
+     * Получение минимального времени ожидания
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает время в мс
+     */
+    @Key("timeout.floor_ms")
+    @DefaultValue("2000")
+    long getTimeoutFloorMillis();
+
+    /**
+     * Получение максимального времени ожидания элементов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает время в мс, используется пока длительностей ожидания недостаточно
+     */
+    @Key("timeout.ceiling_ms")
+    @DefaultValue("20000")
+    long getTimeoutCeilingMillis();
+
+    /**
+     * Получение количества длительностей ожидания, после которого время ожидания вычисляется
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает количество длительностей
+     */
+    @Key("timeout.min_samples")
+    @DefaultValue("30")
+    int getTimeoutMinSamples();
+
+    /**
+     * Получение количества последних длительностей, хранимых для каждого ожидания
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает количество длительностей
+     */
+    @Key("timeout.window")
+    @DefaultValue("1000")
+    int getTimeoutWindow();
+
+    /**
+     * Получение пути до файла с длительностями ожиданий
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает путь до файла, в который длительности сохраняются между запусками, вне target,
+     * чтобы длительности сохранялись после mvn clean
+     */
+    @Key("timeout.stats_file")
+    @DefaultValue(".cache/wait-latency.json")
+    String getTimeoutStatsFile();
+
+    /**
+     * Получение допустимого количества команд WebDriver, выполняемых непосредственно в шаге
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает количество команд без учёта вложенных шагов
+     */
+    @Key("command.budget")
+    @DefaultValue("200")
+    int getCommandBudget();
+
+    /**
+     * Получение режима контроля количества команд WebDriver в шаге
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return возвращает {@link CommandBudgetMode} режим контроля
+     */
+    @Key("command.budget_mode")
+    @DefaultValue("WARN")
+    CommandBudgetMode getCommandBudgetMode();
 }
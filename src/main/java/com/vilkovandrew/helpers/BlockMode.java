@@ -0,0 +1,30 @@
+package com.vilkovandrew.helpers;
+
+/**
+ * Класс предоставляющий режимы блокировки ресурсов страницы
+ *
+ * @author Вилков Андрей
+ */
+public enum BlockMode {
+    /**
+     * Ресурсы не блокируются, сетевые запросы не учитываются
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    OFF,
+    /**
+     * Запросы по шаблонам ссылок и типам ресурсов блокируются
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    BLOCK,
+    /**
+     * Запросы не блокируются, но учитываются запросы и объём, которые были бы сэкономлены блокировкой
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    DRY_RUN;
+}
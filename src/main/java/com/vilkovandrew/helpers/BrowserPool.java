@@ -0,0 +1,100 @@
+package com.vilkovandrew.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Вспомогательный класс для выполнения задач в нескольких сессиях браузера одновременно.
+ * <p>
+ * Каждая задача выполняется в отдельном потоке в собственной сессии драйвера, открытой через {@link DriverSession}.
+ * Сессия закрывается по завершении задачи.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class BrowserPool {
+    /**
+     * Количество одновременно открытых сессий браузера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final int size;
+
+    /**
+     * Конструктор класса {@link BrowserPool}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param size количество одновременно открытых сессий браузера
+     */
+    public BrowserPool(int size) {
+        this.size = Math.max(1, size);
+    }
+
+    /**
+     * Получение количества одновременно открытых сессий браузера.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return количество сессий
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Выполнение задачи для каждого из переданных значений в отдельной сессии браузера.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param tasks  значения, для которых выполняется задача
+     * @param worker задача, выполняемая в сессии браузера
+     * @param <T>    тип значений
+     * @param <R>    тип результата задачи
+     * @return результаты задач в порядке переданных значений
+     */
+    public <T, R> List<R> map(List<T> tasks, Function<T, R> worker) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(size, r -> {
+            Thread thread = new Thread(r, "browser-pool-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<R>> futures = new ArrayList<>();
+            for (T task : tasks) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        DriverSession.acquire();
+                        return worker.apply(task);
+                    } finally {
+                        DriverSession.close();
+                    }
+                }));
+            }
+            List<R> results = new ArrayList<>();
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            Assertions.fail("Ошибка выполнения задачи в сессии браузера", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Assertions.fail("Выполнение задач в сессиях браузера прервано", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,107 @@
+package com.vilkovandrew.helpers;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+import static com.codeborne.selenide.Selenide.webdriver;
+
+/**
+ * Вспомогательный класс для отправки команд и подписки на события Chrome DevTools Protocol.
+ * <p>
+ * Команды и события описываются именами методов протокола, поэтому класс не зависит
+ * от версии браузера. Для каждого драйвера открывается одна сессия DevTools.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class Cdp {
+    /**
+     * Открытые сессии DevTools по драйверам
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<WebDriver, DevTools> SESSIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Проверка что драйвер текущего потока поддерживает DevTools.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return true если команды DevTools доступны, в противном случае false
+     */
+    public static boolean isSupported() {
+        return webdriver().object() instanceof HasDevTools;
+    }
+
+    /**
+     * Получение сессии DevTools для драйвера текущего потока.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return сессия DevTools
+     */
+    public static DevTools devTools() {
+        return SESSIONS.computeIfAbsent(webdriver().object(), driver -> {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            return devTools;
+        });
+    }
+
+    /**
+     * Отправка команды протокола.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param method имя метода, например {@literal Network.enable}
+     * @param params параметры команды
+     * @return результат команды
+     */
+    public static Map<String, Object> send(String method, Map<String, Object> params) {
+        return send(devTools(), method, params);
+    }
+
+    /**
+     * Отправка команды протокола в переданную сессию.
+     * <p>
+     * Используется из обработчиков событий, которые выполняются вне потока теста.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param devTools сессия DevTools
+     * @param method   имя метода, например {@literal Network.getResponseBody}
+     * @param params   параметры команды
+     * @return результат команды
+     */
+    public static Map<String, Object> send(DevTools devTools, String method, Map<String, Object> params) {
+        return devTools.send(new Command<>(method, params, input -> input.read(Json.MAP_TYPE)));
+    }
+
+    /**
+     * Подписка на событие протокола.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param event   имя события, например {@literal Network.responseReceived}
+     * @param handler обработчик параметров события
+     */
+    public static void on(String event, Consumer<Map<String, Object>> handler) {
+        devTools().addListener(new Event<Map<String, Object>>(event, input -> input.read(Json.MAP_TYPE)), handler);
+    }
+}
@@ -0,0 +1,30 @@
+package com.vilkovandrew.helpers;
+
+/**
+ * Класс предоставляющий режимы контроля количества команд WebDriver в шаге
+ *
+ * @author Вилков Андрей
+ */
+public enum CommandBudgetMode {
+    /**
+     * Количество команд учитывается, превышение не проверяется
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    OFF,
+    /**
+     * Превышение отмечается в имени таблицы команд шага и выводится в журнал
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    WARN,
+    /**
+     * Шаг с превышением отмечается упавшим, тест завершается ошибкой
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    FAIL;
+}
@@ -0,0 +1,234 @@
+package com.vilkovandrew.helpers;
+
+import com.codeborne.selenide.WebDriverRunner;
+import com.vilkovandrew.listeners.CommandAccountingListener;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.codeborne.selenide.Selenide.*;
+
+/**
+ * Вспомогательный класс для управления сессией браузера.
+ * <p>
+ * Каждый поток получает собственный драйвер, привязанный к потоку через {@link WebDriverRunner#setWebDriver(WebDriver)},
+ * поэтому тесты могут выполняться параллельно без общих настроек Selenide.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class DriverSession {
+    /**
+     * Открытые драйверы всех потоков
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Set<WebDriver> DRIVERS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Открытые драйверы текущего потока
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final ThreadLocal<Set<WebDriver>> OPENED = ThreadLocal.withInitial(HashSet::new);
+
+    /**
+     * Первая вкладка каждого драйвера, к которой привязана сессия DevTools
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<WebDriver, String> MAIN_WINDOWS = new ConcurrentHashMap<>();
+
+    static {
+        String driverPath = Properties.appProperties.getDriverPath();
+        if (driverPath != null && !driverPath.isEmpty()) {
+            System.setProperty("webdriver.chrome.driver", driverPath);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> DRIVERS.forEach(DriverSession::quit), "driver-session-quit"));
+    }
+
+    /**
+     * Получение настроек Chrome для сессий тестов.
+     * <p>
+     * Фоновые вкладки не замедляются браузером, чтобы предзагрузка следующей страницы
+     * результатов поиска не останавливалась, пока активна другая вкладка. Время загрузки страницы
+     * вычисляется {@link AdaptiveTimeouts} по длительности загрузки страниц в предыдущих сессиях.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return настройки Chrome
+     */
+    public static ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments(
+                "--remote-allow-origins=*",
+                "--incognito",
+                "--disable-blink-features=AutomationControlled",
+                "--no-sandbox",
+                "--disable-dev-shm-usage",
+                "--disable-infobars",
+                "--disable-popup-blocking",
+                "--disable-background-timer-throttling",
+                "--disable-renderer-backgrounding",
+                "--disable-backgrounding-occluded-windows"
+        );
+
+        options.addArguments("user-agent=\"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/113.0.0.0 Safari/537.36\"");
+        options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
+        options.setPageLoadStrategy(Properties.appProperties.getPageLoadStrategy());
+        options.setPageLoadTimeout(AdaptiveTimeouts.timeout(AdaptiveTimeouts.PAGE_LOAD, AdaptiveTimeouts.PAGE_LOAD_CEILING));
+        return options;
+    }
+
+    /**
+     * Подготовка сессии браузера к тесту.
+     * <p>
+     * Если сессия уже открыта и отвечает на команды, её состояние сбрасывается,
+     * в противном случае открывается новая сессия.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static void acquire() {
+        if (WebDriverRunner.hasWebDriverStarted()) {
+            if (isHealthy()) {
+                reset();
+                return;
+            }
+            close();
+        }
+        start();
+    }
+
+    /**
+     * Завершение сессии браузера, если время её жизни ограничено переданной областью.
+     * <p>
+     * По завершении класса закрываются только драйверы, открытые текущим потоком: драйверы других потоков
+     * могут выполнять тесты других классов и закрываются своими потоками или при завершении JVM.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param scope завершившаяся область: тест или класс
+     */
+    public static void release(SessionLifecycle scope) {
+        if (Properties.appProperties.getSessionLifecycle() == scope) {
+            close();
+            if (scope == SessionLifecycle.CLASS) {
+                new ArrayList<>(OPENED.get()).forEach(DriverSession::quit);
+            }
+        }
+    }
+
+    /**
+     * Закрытие драйвера текущего потока.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static void close() {
+        if (!WebDriverRunner.hasWebDriverStarted()) return;
+        ResourceBlocker.flush();
+        WebDriver driver = webdriver().object();
+        closeWebDriver();
+        quit(driver);
+    }
+
+    /**
+     * Завершение работы драйвера, ошибки уже закрытого драйвера игнорируются.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param driver драйвер
+     */
+    private static void quit(WebDriver driver) {
+        DRIVERS.remove(driver);
+        OPENED.get().remove(driver);
+        MAIN_WINDOWS.remove(driver);
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            // драйвер уже закрыт
+        }
+    }
+
+    /**
+     * Открытие новой сессии браузера для текущего потока и включение блокировки ресурсов до первого перехода.
+     * <p>
+     * Команды драйвера учитываются по шагам {@link CommandAccountingListener}.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static void start() {
+        WebDriver driver = new EventFiringDecorator<>(new CommandAccountingListener())
+                .decorate(new ChromeDriver(chromeOptions()));
+        DRIVERS.add(driver);
+        OPENED.get().add(driver);
+        WebDriverRunner.setWebDriver(driver);
+        MAIN_WINDOWS.put(driver, driver.getWindowHandle());
+        ResourceBlocker.attach();
+        driver.manage().window().maximize();
+    }
+
+    /**
+     * Проверка что сессия браузера отвечает на команды и первая вкладка, к которой привязана
+     * сессия DevTools, не закрыта.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return true если сессия исправна, в противном случае false
+     */
+    private static boolean isHealthy() {
+        try {
+            WebDriver driver = webdriver().object();
+            return driver.getWindowHandles().contains(MAIN_WINDOWS.get(driver));
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Сброс состояния сессии: удаление cookies и хранилищ, закрытие всех вкладок, кроме первой,
+     * к которой привязана сессия DevTools, и переход на пустую страницу.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static void reset() {
+        WebDriver driver = webdriver().object();
+        String mainWindow = MAIN_WINDOWS.get(driver);
+        for (String handle : driver.getWindowHandles()) {
+            if (!handle.equals(mainWindow)) {
+                driver.switchTo().window(handle).close();
+            }
+        }
+        driver.switchTo().window(mainWindow);
+        executeJavaScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        if (driver instanceof HasCdp) {
+            ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+        } else {
+            driver.manage().deleteAllCookies();
+        }
+        open("about:blank");
+    }
+}
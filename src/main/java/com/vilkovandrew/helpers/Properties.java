@@ -11,8 +11,11 @@ public class Properties {
     /**
      * Экземпляр класса реализующий интерфейс {@link AppProperties}
      * <p>
+     * Создаётся один раз и только читается, поэтому может использоваться из нескольких потоков.
+     * </p>
+     * <p>
      * Автор: Вилков Андрей
      * </p>
      */
-    public static AppProperties appProperties = ConfigFactory.create(AppProperties.class);
+    public static final AppProperties appProperties = ConfigFactory.create(AppProperties.class);
 }
@@ -0,0 +1,388 @@
+package com.vilkovandrew.helpers;
+
+import com.codeborne.selenide.WebDriverRunner;
+import io.qameta.allure.Allure;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.codeborne.selenide.Selenide.webdriver;
+
+/**
+ * Вспомогательный класс для блокировки ненужных тестам ресурсов страницы через Chrome DevTools Protocol.
+ * <p>
+ * Запросы по шаблонам ссылок блокируются командой {@literal Network.setBlockedURLs},
+ * запросы ресурсов заданных типов - перехватом {@literal Fetch.requestPaused}.
+ * Для каждой страницы учитываются загруженные и сэкономленные запросы и байты и время загрузки
+ * от отправки запроса документа главного фрейма до события load, таблица по всем страницам прикладывается к отчёту теста.
+ * </p>
+ *
+ * @author Вилков Андрей
+ * @see BlockMode
+ */
+public class ResourceBlocker {
+    /**
+     * Блокировщики по драйверам
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<WebDriver, ResourceBlocker> BLOCKERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Завершённые страницы закрытых драйверов, ещё не приложенные к отчёту
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final List<PageTraffic> PAGES = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Признак учёта без блокировки
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final boolean dryRun = Properties.appProperties.getBlockMode() == BlockMode.DRY_RUN;
+
+    /**
+     * Шаблоны ссылок блокируемых запросов в формате {@literal Network.setBlockedURLs}
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<String> urlPatterns = Properties.appProperties.getBlockUrlPatterns();
+
+    /**
+     * Типы блокируемых ресурсов в формате {@literal Network.ResourceType}
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<String> resourceTypes = Properties.appProperties.getBlockResourceTypes();
+
+    /**
+     * Шаблоны ссылок блокируемых запросов в виде регулярного выражения для режима учёта без блокировки
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Pattern urlRegex = Pattern.compile(urlPatterns.stream()
+            .map(pattern -> Pattern.quote(pattern).replace("*", "\\E.*\\Q"))
+            .collect(Collectors.joining("|")));
+
+    /**
+     * Идентификаторы запросов, которые были бы заблокированы, в режиме учёта без блокировки
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Set<String> wouldBlock = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Идентификаторы запросов, заблокированных перехватом
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Set<String> fetchBlocked = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Идентификатор главного фрейма
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private String mainFrameId;
+
+    /**
+     * Идентификатор запроса документа главного фрейма, с которого началась текущая навигация
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private String documentRequestId;
+
+    /**
+     * Время отправки запроса документа главного фрейма по {@link System#nanoTime()}, 0 если навигации нет
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private long documentRequested;
+
+    /**
+     * Текущая страница
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private PageTraffic current;
+
+    /**
+     * Завершённые страницы драйвера, ещё не приложенные к отчёту
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<PageTraffic> pages = new ArrayList<>();
+
+    /**
+     * Включение блокировки для драйвера текущего потока.
+     * <p>
+     * Повторный вызов для того же драйвера ничего не делает.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static void attach() {
+        if (Properties.appProperties.getBlockMode() == BlockMode.OFF || !Cdp.isSupported()) return;
+        BLOCKERS.computeIfAbsent(webdriver().object(), driver -> {
+            ResourceBlocker blocker = new ResourceBlocker();
+            blocker.enable(Cdp.devTools());
+            return blocker;
+        });
+    }
+
+    /**
+     * Завершение учёта страниц драйвера текущего потока.
+     * <p>
+     * Вызывается перед закрытием драйвера, страницы прикладываются к отчёту следующим вызовом {@link #report()}.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static void flush() {
+        if (!WebDriverRunner.hasWebDriverStarted()) return;
+        ResourceBlocker blocker = BLOCKERS.get(webdriver().object());
+        if (blocker != null) PAGES.addAll(blocker.drain());
+    }
+
+    /**
+     * Прикрепление к отчёту таблицы загруженных и сэкономленных запросов по страницам драйвера текущего потока
+     * и закрытых драйверов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static void report() {
+        List<PageTraffic> pages = new ArrayList<>();
+        synchronized (PAGES) {
+            pages.addAll(PAGES);
+            PAGES.clear();
+        }
+        if (WebDriverRunner.hasWebDriverStarted()) {
+            ResourceBlocker blocker = BLOCKERS.get(webdriver().object());
+            if (blocker != null) pages.addAll(blocker.drain());
+        }
+        if (pages.isEmpty()) return;
+
+        StringBuilder csv = new StringBuilder("Страница;Загружено запросов;Загружено байт;Сэкономлено запросов;Сэкономлено байт;Загрузка, мс\n");
+        for (PageTraffic page : pages) {
+            csv.append(page.url).append(';')
+                    .append(page.loadedRequests).append(';')
+                    .append(page.loadedBytes).append(';')
+                    .append(page.savedRequests).append(';')
+                    .append(Properties.appProperties.getBlockMode() == BlockMode.DRY_RUN ? Long.toString(page.savedBytes) : "").append(';')
+                    .append(page.loadMillis < 0 ? "" : Long.toString(page.loadMillis)).append('\n');
+        }
+        Allure.addAttachment(String.format("Сетевые запросы по страницам (%s)", Properties.appProperties.getBlockMode()),
+                "text/csv", csv.toString(), ".csv");
+    }
+
+    /**
+     * Включение событий, блокировки и учёта запросов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param devTools сессия DevTools
+     */
+    private void enable(DevTools devTools) {
+        Cdp.on("Page.frameNavigated", params -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> frame = (Map<String, Object>) params.get("frame");
+            if (frame.get("parentId") == null) {
+                mainFrameId = (String) frame.get("id");
+                startPage((String) frame.get("url"), navigationStarted());
+            }
+        });
+        Cdp.on("Page.navigatedWithinDocument", params -> {
+            if (Objects.equals(params.get("frameId"), mainFrameId)) startPage((String) params.get("url"), System.nanoTime());
+        });
+        Cdp.on("Page.loadEventFired", params -> loaded());
+        Cdp.on("Network.requestWillBeSent", params -> {
+            if ("Document".equals(params.get("type"))
+                    && (mainFrameId == null || Objects.equals(params.get("frameId"), mainFrameId))) {
+                documentRequested((String) params.get("requestId"));
+            }
+            if (!dryRun) return;
+            @SuppressWarnings("unchecked")
+            Map<String, Object> request = (Map<String, Object>) params.get("request");
+            String url = Objects.toString(request.get("url"), "");
+            if ((!urlPatterns.isEmpty() && urlRegex.matcher(url).matches())
+                    || resourceTypes.contains(Objects.toString(params.get("type"), ""))) {
+                wouldBlock.add((String) params.get("requestId"));
+            }
+        });
+        Cdp.on("Network.loadingFinished", params -> {
+            String requestId = (String) params.get("requestId");
+            long bytes = ((Number) params.get("encodedDataLength")).longValue();
+            boolean saved = wouldBlock.remove(requestId);
+            count(1, bytes, saved ? 1 : 0, saved ? bytes : 0);
+        });
+        Cdp.on("Network.loadingFailed", params -> {
+            String requestId = (String) params.get("requestId");
+            wouldBlock.remove(requestId);
+            if (!fetchBlocked.remove(requestId) && params.get("blockedReason") != null) count(0, 0, 1, 0);
+        });
+
+        Cdp.send("Page.enable", Map.of());
+        Cdp.send("Network.enable", Map.of());
+        if (dryRun) return;
+        if (!urlPatterns.isEmpty()) {
+            Cdp.send("Network.setBlockedURLs", Map.of("urls", urlPatterns));
+        }
+        if (!resourceTypes.isEmpty()) {
+            Cdp.on("Fetch.requestPaused", params -> {
+                Object networkId = params.get("networkId");
+                if (networkId != null) fetchBlocked.add((String) networkId);
+                count(0, 0, 1, 0);
+                Cdp.send(devTools, "Fetch.failRequest",
+                        Map.of("requestId", params.get("requestId"), "errorReason", "BlockedByClient"));
+            });
+            Cdp.send("Fetch.enable", Map.of("patterns", resourceTypes.stream()
+                    .map(type -> Map.of("resourceType", type, "requestStage", "Request"))
+                    .collect(Collectors.toList())));
+        }
+    }
+
+    /**
+     * Учёт отправки запроса документа главного фрейма.
+     * <p>
+     * Перенаправления приходят с тем же идентификатором запроса и не сдвигают начало навигации.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param requestId идентификатор запроса
+     */
+    private synchronized void documentRequested(String requestId) {
+        if (!requestId.equals(documentRequestId)) {
+            documentRequestId = requestId;
+            documentRequested = System.nanoTime();
+        }
+    }
+
+    /**
+     * Получение начала навигации главного фрейма: отправки запроса документа, чтобы время загрузки
+     * включало ожидание первого байта ответа.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return время по {@link System#nanoTime()}, текущее время если запрос документа не был отправлен
+     */
+    private synchronized long navigationStarted() {
+        long started = documentRequested != 0 ? documentRequested : System.nanoTime();
+        documentRequestId = null;
+        documentRequested = 0;
+        return started;
+    }
+
+    /**
+     * Завершение учёта текущей страницы и начало учёта новой.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param url     ссылка новой страницы, null если учёт не начинается
+     * @param started начало загрузки новой страницы по {@link System#nanoTime()}
+     */
+    private synchronized void startPage(String url, long started) {
+        if (current != null && (current.loadedRequests > 0 || current.savedRequests > 0)) {
+            pages.add(current);
+        }
+        current = url == null ? null : new PageTraffic(url, started);
+    }
+
+    /**
+     * Завершение учёта текущей страницы и получение всех завершённых страниц.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return завершённые страницы
+     */
+    private synchronized List<PageTraffic> drain() {
+        startPage(null, 0);
+        List<PageTraffic> result = new ArrayList<>(pages);
+        pages.clear();
+        return result;
+    }
+
+    /**
+     * Учёт завершения загрузки текущей страницы.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private synchronized void loaded() {
+        if (current != null && current.loadMillis < 0) {
+            current.loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - current.started);
+        }
+    }
+
+    /**
+     * Учёт запросов текущей страницы.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param loadedRequests количество загруженных запросов
+     * @param loadedBytes    объём загруженных запросов в байтах
+     * @param savedRequests  количество заблокированных запросов
+     * @param savedBytes     объём заблокированных запросов в байтах, известен только при учёте без блокировки
+     */
+    private synchronized void count(int loadedRequests, long loadedBytes, int savedRequests, long savedBytes) {
+        if (current == null) return;
+        current.loadedRequests += loadedRequests;
+        current.loadedBytes += loadedBytes;
+        current.savedRequests += savedRequests;
+        current.savedBytes += savedBytes;
+    }
+
+    /**
+     * Сетевые запросы одной страницы.
+     *
+     * @author Вилков Андрей
+     */
+    private static final class PageTraffic {
+        private final String url;
+        private final long started;
+        private long loadMillis = -1;
+        private int loadedRequests;
+        private long loadedBytes;
+        private int savedRequests;
+        private long savedBytes;
+
+        PageTraffic(String url, long started) {
+            this.url = url;
+            this.started = started;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.vilkovandrew.helpers;
+
+import com.codeborne.selenide.WebDriverRunner;
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.StepResult;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.codeborne.selenide.Selenide.webdriver;
+
+/**
+ * Вспомогательный класс для создания скриншотов шагов вне потока теста.
+ * <p>
+ * В потоке теста скриншот только снимается в виде массива байт. Уменьшение, сжатие в JPEG,
+ * отбрасывание кадров, совпадающих с предыдущим по перцептивному хэшу, соблюдение лимита
+ * объёма скриншотов на тест и запись вложения выполняются фоновым потоком.
+ * Очередь ограничена: при её переполнении обработка выполняется в потоке теста.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class ScreenshotPipeline {
+    /**
+     * Журнал обработки скриншотов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ScreenshotPipeline.class);
+
+    /**
+     * Ширина уменьшенного изображения для перцептивного хэша
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final int HASH_WIDTH = 9;
+    /**
+     * Высота уменьшенного изображения для перцептивного хэша
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final int HASH_HEIGHT = 8;
+
+    /**
+     * Фоновый поток обработки скриншотов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, Properties.appProperties.getScreenshotQueueSize())),
+            r -> {
+                Thread thread = new Thread(r, "screenshot-pipeline");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    /**
+     * Состояние скриншотов по идентификатору теста
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<String, TestScreenshots> TESTS = new ConcurrentHashMap<>();
+
+    /**
+     * Снятие скриншота для шага и передача его на обработку.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param step      шаг, к которому прикладывается скриншот
+     * @param important true для скриншотов, которые не отбрасываются как повтор и не учитываются в лимите
+     */
+    public static void capture(StepResult step, boolean important) {
+        if (!WebDriverRunner.hasWebDriverStarted()) return;
+        byte[] png = ((TakesScreenshot) webdriver().object()).getScreenshotAs(OutputType.BYTES);
+        String testUuid = Allure.getLifecycle().getCurrentTestCase().orElse("");
+        TestScreenshots test = TESTS.computeIfAbsent(testUuid, uuid -> new TestScreenshots());
+        test.started();
+        EXECUTOR.execute(() -> {
+            try {
+                process(step, png, test, important);
+            } finally {
+                test.finished();
+            }
+        });
+    }
+
+    /**
+     * Ожидание обработки всех скриншотов теста.
+     * <p>
+     * Вызывается перед записью результата теста, чтобы все вложения попали в отчёт.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param testUuid идентификатор теста
+     */
+    public static void awaitTest(String testUuid) {
+        TestScreenshots test = TESTS.remove(testUuid);
+        if (test != null) test.await();
+    }
+
+    /**
+     * Обработка скриншота и прикрепление его к шагу.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param step      шаг, к которому прикладывается скриншот
+     * @param png       скриншот в формате PNG
+     * @param test      состояние скриншотов теста
+     * @param important true для скриншотов, которые не отбрасываются как повтор и не учитываются в лимите
+     */
+    private static void process(StepResult step, byte[] png, TestScreenshots test, boolean important) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) return;
+            long hash = differenceHash(image);
+            if (!important && test.isDuplicate(hash)) return;
+
+            byte[] jpeg = encode(image);
+            if (!test.accept(hash, jpeg.length, important)) return;
+
+            String source = UUID.randomUUID() + "-attachment.jpg";
+            Allure.getLifecycle().writeAttachment(source, new ByteArrayInputStream(jpeg));
+            synchronized (step) {
+                step.getAttachments().add(new Attachment()
+                        .setName(Long.toString(System.currentTimeMillis()))
+                        .setType("image/jpeg")
+                        .setSource(source));
+            }
+        } catch (IOException e) {
+            LOG.warn("Не удалось обработать скриншот", e);
+        }
+    }
+
+    /**
+     * Вычисление перцептивного хэша изображения по разнице яркости соседних точек.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param image изображение
+     * @return 64-битный хэш
+     */
+    private static long differenceHash(BufferedImage image) {
+        BufferedImage small = new BufferedImage(HASH_WIDTH, HASH_HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = small.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, HASH_WIDTH, HASH_HEIGHT, null);
+        graphics.dispose();
+        long hash = 0;
+        for (int y = 0; y < HASH_HEIGHT; y++) {
+            for (int x = 0; x < HASH_WIDTH - 1; x++) {
+                int left = small.getRaster().getSample(x, y, 0);
+                int right = small.getRaster().getSample(x + 1, y, 0);
+                hash = (hash << 1) | (left > right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Уменьшение изображения до допустимой ширины и сжатие в JPEG.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param image изображение
+     * @return изображение в формате JPEG
+     */
+    private static byte[] encode(BufferedImage image) throws IOException {
+        int maxWidth = Properties.appProperties.getScreenshotMaxWidth();
+        int width = Math.min(image.getWidth(), maxWidth);
+        int height = (int) Math.round((double) image.getHeight() * width / image.getWidth());
+        BufferedImage scaled = new BufferedImage(width, Math.max(1, height), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, scaled.getWidth(), scaled.getHeight(), null);
+        graphics.dispose();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(Properties.appProperties.getScreenshotJpegQuality());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(scaled, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Состояние скриншотов одного теста.
+     *
+     * @author Вилков Андрей
+     */
+    private static final class TestScreenshots {
+        /**
+         * Хэш последнего сохранённого кадра
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private Long lastHash;
+        /**
+         * Объём принятых скриншотов в байтах
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private long bytes;
+        /**
+         * Количество скриншотов, ожидающих обработки
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private int pending;
+
+        /**
+         * Проверка что кадр повторяет последний сохранённый кадр.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param hash перцептивный хэш кадра
+         * @return true если кадр можно не сохранять
+         */
+        synchronized boolean isDuplicate(long hash) {
+            return lastHash != null
+                    && Long.bitCount(lastHash ^ hash) <= Properties.appProperties.getScreenshotDedupDistance();
+        }
+
+        /**
+         * Приём кадра, если он не повторяет последний сохранённый кадр и помещается в лимит объёма теста.
+         * <p>
+         * Хэш кадра запоминается только для принятого кадра, чтобы следующие кадры сравнивались
+         * с последним сохранённым скриншотом.
+         * </p>
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param hash      перцептивный хэш кадра
+         * @param size      размер скриншота в байтах
+         * @param important true для скриншотов, которые принимаются всегда и не учитываются в лимите
+         * @return true если скриншот нужно сохранить
+         */
+        synchronized boolean accept(long hash, int size, boolean important) {
+            if (!important) {
+                if (isDuplicate(hash) || bytes + size > Properties.appProperties.getScreenshotBudgetBytes()) return false;
+                bytes += size;
+            }
+            lastHash = hash;
+            return true;
+        }
+
+        /**
+         * Учёт скриншота, переданного на обработку.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        synchronized void started() {
+            pending++;
+        }
+
+        /**
+         * Учёт обработанного скриншота.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        synchronized void finished() {
+            pending--;
+            notifyAll();
+        }
+
+        /**
+         * Ожидание обработки всех скриншотов теста, не более минуты.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        synchronized void await() {
+            long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+            try {
+                while (pending > 0 && System.currentTimeMillis() < deadline) {
+                    wait(Math.max(1, deadline - System.currentTimeMillis()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -5,9 +5,6 @@ import io.qameta.allure.Attachment;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 
-import java.io.File;
-import java.nio.file.Files;
-
 import static com.codeborne.selenide.Selenide.webdriver;
 
 /**
@@ -26,13 +23,7 @@ public class Screenshoter {
      */
     @Attachment
     public static byte[] getScreen() {
-        File screenshot = ((TakesScreenshot) webdriver().driver()).getScreenshotAs(OutputType.FILE);
-        try {
-            return Files.readAllBytes(screenshot.toPath());
-        } catch (Exception e) {
-            Assertions.fail("Не удалось получить скриншот", e);
-        }
-        return new byte[0];
+        return ((TakesScreenshot) webdriver().object()).getScreenshotAs(OutputType.BYTES);
     }
 
     /**
@@ -49,12 +40,6 @@ public class Screenshoter {
 
         element.scrollTo();
 
-        File screenshot = element.getScreenshotAs(OutputType.FILE);
-        try {
-            return Files.readAllBytes(screenshot.toPath());
-        } catch (Exception e) {
-            Assertions.fail("Не удалось получить скриншот", e);
-        }
-        return new byte[0];
+        return element.getScreenshotAs(OutputType.BYTES);
     }
 }
@@ -0,0 +1,56 @@
+package com.vilkovandrew.helpers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.String.format;
+
+/**
+ * Вспомогательный класс для загрузки JavaScript, выполняемого на странице.
+ *
+ * @author Вилков Андрей
+ */
+public class Scripts {
+    /**
+     * Загруженные скрипты по имени
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<String, String> SCRIPTS = new ConcurrentHashMap<>();
+
+    /**
+     * Получение текста скрипта из ресурса {@literal js/<name>.js}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param name имя скрипта без расширения
+     * @return текст скрипта
+     */
+    public static String get(String name) {
+        return SCRIPTS.computeIfAbsent(name, Scripts::load);
+    }
+
+    /**
+     * Чтение скрипта из ресурсов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param name имя скрипта без расширения
+     * @return текст скрипта
+     */
+    private static String load(String name) {
+        try (InputStream stream = Scripts.class.getResourceAsStream(format("/js/%s.js", name))) {
+            if (stream != null) return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Assertions.fail(format("Не удалось прочитать скрипт '%s'", name), e);
+        }
+        Assertions.fail(format("Скрипт '%s' не найден", name));
+        return "";
+    }
+}
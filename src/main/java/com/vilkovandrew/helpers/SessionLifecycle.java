@@ -0,0 +1,30 @@
+package com.vilkovandrew.helpers;
+
+/**
+ * Класс предоставляющий варианты времени жизни сессии браузера
+ *
+ * @author Вилков Андрей
+ */
+public enum SessionLifecycle {
+    /**
+     * Новая сессия для каждого теста
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    TEST,
+    /**
+     * Одна сессия на все тесты класса
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    CLASS,
+    /**
+     * Одна сессия на все тесты в рамках запуска
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    JVM;
+}
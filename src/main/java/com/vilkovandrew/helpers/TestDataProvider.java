@@ -1,11 +1,20 @@
 package com.vilkovandrew.helpers;
 
 import com.vilkovandrew.yandex.market.helpers.CheckBoxFilter;
+import com.vilkovandrew.yandex.market.helpers.Filter;
+import com.vilkovandrew.yandex.market.helpers.FilterType;
 import com.vilkovandrew.yandex.market.helpers.Product;
-import org.junit.jupiter.params.provider.Arguments;
+import com.vilkovandrew.yandex.market.helpers.RangeFilter;
+import com.vilkovandrew.yandex.market.helpers.Scenario;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
+
+import static java.lang.String.format;
 
 /**
  * Класс предоставления данных для тестов.
@@ -15,22 +24,107 @@ import java.util.stream.Stream;
 public class TestDataProvider {
 
     /**
-     * Поставщик тестовых данных для yaMarketProductTest.
+     * Разделитель полей в файле сценариев
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String FIELD_SEPARATOR = ";";
+
+    /**
+     * Разделитель значений фильтра с несколькими возможными значениями
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String VALUE_SEPARATOR = "\\|";
+
+    /**
+     * Поставщик сценариев для yaMarketProductTest из файла, заданного настройкой scenario.file.
+     * <p>
+     * Каждая непустая строка файла, кроме комментариев, начинающихся с '#', описывает сценарий:
+     * {@literal категория;раздел;фильтр;тип;значения[;фильтр;тип;значения...]}. Тип фильтра CHECKBOX
+     * проверяет заголовок товара, значения разделяются '|'. Тип фильтра RANGE проверяет цену товара,
+     * значение задаётся как {@literal мин-макс}.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return сценарии в порядке следования в файле
+     */
+    public static List<Scenario> scenarios() {
+        return scenarios(Path.of(Properties.appProperties.getScenarioFile()));
+    }
+
+    /**
+     * Чтение сценариев из файла в формате {@link #scenarios()}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param file файл сценариев
+     * @return сценарии в порядке следования в файле
+     */
+    public static List<Scenario> scenarios(Path file) {
+        List<String> lines = List.of();
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Assertions.fail(format("Не удалось прочитать сценарии из '%s'", file), e);
+        }
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            scenarios.add(scenario(line, format("%s:%d", file, i + 1)));
+        }
+        return scenarios;
+    }
+
+    /**
+     * Разбор строки файла сценариев.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param line     строка файла
+     * @param location имя файла и номер строки для сообщения об ошибке
+     * @return сценарий
+     */
+    private static Scenario scenario(String line, String location) {
+        String[] fields = line.split(FIELD_SEPARATOR, -1);
+        Assertions.assertTrue(fields.length >= 5 && (fields.length - 2) % 3 == 0,
+                format("%s: ожидается 'категория;раздел;фильтр;тип;значения', получено '%s'", location, line));
+        List<Filter> filters = new ArrayList<>();
+        for (int i = 2; i < fields.length; i += 3) {
+            filters.add(filter(fields[i].strip(), fields[i + 1].strip(), fields[i + 2].strip(), location));
+        }
+        return new Scenario(Properties.appProperties.getYaMarketUrl(), fields[0].strip(), fields[1].strip(), filters);
+    }
+
+    /**
+     * Создание фильтра по описанию из файла сценариев.
      * <p>
      * Автор: Вилков Андрей
      * </p>
      *
-     * @return массив тестовых данных
+     * @param name     имя фильтра
+     * @param type     тип фильтра {@link FilterType}
+     * @param values   значения фильтра
+     * @param location имя файла и номер строки для сообщения об ошибке
+     * @return фильтр
      */
-    public static Stream<Arguments> yaMarketProductTest() {
-
-        return Stream.of(
-                Arguments.of(Properties.appProperties.getYaMarketUrl(), "Электроника", "Смартфоны", List.of(new CheckBoxFilter("Производитель", Product::getHeader, "Apple"))),
-                Arguments.of(Properties.appProperties.getYaMarketUrl(), "Электроника", "Смартфоны", List.of(new CheckBoxFilter("Производитель", Product::getHeader, "ASUS"))),
-                Arguments.of(Properties.appProperties.getYaMarketUrl(), "Электроника", "Смартфоны", List.of(new CheckBoxFilter("Производитель", Product::getHeader, "Black Shark"))),
-                Arguments.of(Properties.appProperties.getYaMarketUrl(), "Электроника", "Смартфоны", List.of(new CheckBoxFilter("Производитель", Product::getHeader, "OnePlus"))),
-                Arguments.of(Properties.appProperties.getYaMarketUrl(), "Электроника", "Смартфоны", List.of(new CheckBoxFilter("Производитель", Product::getHeader, "Google"))),
-                Arguments.of(Properties.appProperties.getYaMarketUrl(), "Электроника", "Смартфоны", List.of(new CheckBoxFilter("Производитель", Product::getHeader, "Seals")))
-        );
+    private static Filter filter(String name, String type, String values, String location) {
+        try {
+            if (FilterType.valueOf(type.toUpperCase()) == FilterType.RANGE) {
+                String[] bounds = values.split("-", 2);
+                return new RangeFilter(name, Product::getPrice, Integer.parseInt(bounds[0].strip()), Integer.parseInt(bounds[1].strip()));
+            }
+            return new CheckBoxFilter(name, Product::getHeader, values.split(VALUE_SEPARATOR));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            Assertions.fail(format("%s: некорректный фильтр '%s;%s;%s'", location, name, type, values), e);
+            return null;
+        }
     }
 }
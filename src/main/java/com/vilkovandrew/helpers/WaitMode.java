@@ -0,0 +1,23 @@
+package com.vilkovandrew.helpers;
+
+/**
+ * Класс предоставляющий варианты ожидания готовности страницы
+ *
+ * @author Вилков Андрей
+ */
+public enum WaitMode {
+    /**
+     * Ожидание по событиям сети Chrome DevTools Protocol и изменениям DOM
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    CDP,
+    /**
+     * Периодическая проверка появления и пропадания элементов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    POLLING;
+}
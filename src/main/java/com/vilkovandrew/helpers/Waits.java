@@ -0,0 +1,426 @@
+package com.vilkovandrew.helpers;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.Status;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static com.codeborne.selenide.Selenide.executeAsyncJavaScript;
+import static com.codeborne.selenide.Selenide.webdriver;
+import static java.lang.String.format;
+
+/**
+ * Вспомогательный класс для ожидания готовности страницы по событиям, а не периодическим опросом.
+ * <p>
+ * Запросы браузера отслеживаются через события сети Chrome DevTools Protocol.
+ * Доступны условия: отсутствие сетевой активности в течение заданного времени,
+ * завершение запроса, ссылка которого соответствует шаблону, и отсутствие изменений DOM.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class Waits {
+    /**
+     * Типы запросов, которые учитываются при ожидании отсутствия сетевой активности
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Set<String> TRACKED_TYPES = Set.of("Document", "XHR", "Fetch", "Script");
+
+    /**
+     * Время в мс, после которого незавершённый запрос считается долгоживущим и не учитывается
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final long STALE_REQUEST_MILLIS = 5000;
+
+    /**
+     * Количество последних завершённых запросов, хранимых для проверки по шаблону
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final int COMPLETED_HISTORY = 256;
+
+    /**
+     * Сетевая активность по драйверам
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<WebDriver, NetworkActivity> ACTIVITY = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Проверка что ожидание выполняется по событиям.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return true если выбран режим {@link WaitMode#CDP} и драйвер поддерживает DevTools
+     */
+    public static boolean isEventDriven() {
+        return Properties.appProperties.getWaitMode() == WaitMode.CDP && Cdp.isSupported();
+    }
+
+    /**
+     * Получение отметки, относительно которой проверяется завершение запросов.
+     * <p>
+     * Снимается до действия, вызывающего запрос.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return порядковый номер последнего события сети
+     */
+    public static long mark() {
+        return activity().sequence();
+    }
+
+    /**
+     * Ожидание отсутствия сетевой активности с параметрами из настроек.
+     * <p>
+     * Истечение времени ожидания отражается в отчёте шагом со статусом {@link Status#BROKEN}:
+     * следующие проверки страницы выполняются, но могут видеть страницу до завершения загрузки.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return true если сеть простаивает, false если истекло время ожидания
+     */
+    public static boolean networkIdle() {
+        long timeoutMillis = Properties.appProperties.getWaitTimeoutMillis();
+        boolean idle = networkIdle(Properties.appProperties.getWaitNetworkQuietMillis(), timeoutMillis);
+        if (!idle) {
+            reportTimeout("отсутствие сетевой активности", timeoutMillis);
+        }
+        return idle;
+    }
+
+    /**
+     * Отражение в отчёте ожидания, завершённого по истечении времени, шагом со статусом {@link Status#BROKEN}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param condition     описание условия ожидания
+     * @param timeoutMillis время ожидания в мс
+     */
+    public static void reportTimeout(String condition, long timeoutMillis) {
+        Allure.step(format("Не дождались условия '%s' за %d мс", condition, timeoutMillis), Status.BROKEN);
+    }
+
+    /**
+     * Ожидание отсутствия сетевой активности.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param quietMillis   время в мс без незавершённых запросов
+     * @param timeoutMillis максимальное время ожидания в мс
+     * @return true если сеть простаивает, false если истекло время ожидания
+     */
+    public static boolean networkIdle(long quietMillis, long timeoutMillis) {
+        return activity().awaitIdle(TimeUnit.MILLISECONDS.toNanos(quietMillis), deadline(timeoutMillis));
+    }
+
+    /**
+     * Ожидание завершения запроса, ссылка которого соответствует шаблону.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param pattern       шаблон ссылки запроса
+     * @param mark          отметка {@link #mark()}, снятая до действия, вызывающего запрос
+     * @param timeoutMillis максимальное время ожидания в мс
+     * @return true если запрос завершён, false если истекло время ожидания
+     */
+    public static boolean requestCompleted(Pattern pattern, long mark, long timeoutMillis) {
+        return activity().awaitCompleted(pattern, mark, deadline(timeoutMillis));
+    }
+
+    /**
+     * Ожидание отсутствия изменений DOM.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param root          корневой элемент, изменения в котором отслеживаются, null - весь документ
+     * @param quietMillis   время в мс без изменений
+     * @param timeoutMillis максимальное время ожидания в мс
+     * @return true если изменения прекратились, false если истекло время ожидания
+     */
+    public static boolean domQuiet(WebElement root, long quietMillis, long timeoutMillis) {
+        Boolean quiet = executeAsyncJavaScript(Scripts.get("dom-quiet"), root, quietMillis, timeoutMillis);
+        return Boolean.TRUE.equals(quiet);
+    }
+
+    /**
+     * Вычисление момента окончания ожидания.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param timeoutMillis максимальное время ожидания в мс
+     * @return момент окончания ожидания по {@link System#nanoTime()}
+     */
+    private static long deadline(long timeoutMillis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Получение сетевой активности драйвера текущего потока, при первом обращении включаются события сети.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return сетевая активность драйвера
+     */
+    private static NetworkActivity activity() {
+        return ACTIVITY.computeIfAbsent(webdriver().object(), driver -> {
+            NetworkActivity activity = new NetworkActivity(Pattern.compile(Properties.appProperties.getWaitIgnoredUrls()));
+            Cdp.on("Network.requestWillBeSent", params -> {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> request = (Map<String, Object>) params.get("request");
+                activity.started((String) params.get("requestId"), (String) request.get("url"), (String) params.get("type"));
+            });
+            Cdp.on("Network.loadingFinished", params -> activity.finished((String) params.get("requestId")));
+            Cdp.on("Network.loadingFailed", params -> activity.finished((String) params.get("requestId")));
+            Cdp.send("Network.enable", Map.of());
+            return activity;
+        });
+    }
+
+    /**
+     * Сетевая активность одного браузера.
+     *
+     * @author Вилков Андрей
+     */
+    private static final class NetworkActivity {
+        /**
+         * Шаблон ссылок, запросы по которым не учитываются при ожидании отсутствия сетевой активности
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final Pattern ignoredUrls;
+        /**
+         * Незавершённые запросы по идентификатору
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final Map<String, Request> inflight = new HashMap<>();
+        /**
+         * Последние завершённые запросы
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final Deque<Request> completed = new ArrayDeque<>();
+        /**
+         * Порядковый номер последнего события
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private long sequence;
+        /**
+         * Момент последнего учитываемого события по {@link System#nanoTime()}
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private long lastActivity = System.nanoTime();
+
+        /**
+         * Конструктор класса {@link NetworkActivity}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param ignoredUrls шаблон ссылок, запросы по которым не учитываются при ожидании отсутствия сетевой активности
+         */
+        NetworkActivity(Pattern ignoredUrls) {
+            this.ignoredUrls = ignoredUrls;
+        }
+
+        /**
+         * Получение порядкового номера последнего события.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return порядковый номер события
+         */
+        synchronized long sequence() {
+            return sequence;
+        }
+
+        /**
+         * Учёт начала запроса.
+         * <p>
+         * Запрос учитывается при ожидании отсутствия сетевой активности, если его тип входит в {@link #TRACKED_TYPES},
+         * а ссылка не является data: и не соответствует шаблону игнорируемых ссылок.
+         * </p>
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param requestId идентификатор запроса
+         * @param url       ссылка запроса
+         * @param type      тип ресурса запроса, null если неизвестен
+         */
+        synchronized void started(String requestId, String url, String type) {
+            boolean tracked = !url.startsWith("data:")
+                    && (type == null || TRACKED_TYPES.contains(type))
+                    && (ignoredUrls.pattern().isEmpty() || !ignoredUrls.matcher(url).find());
+            inflight.put(requestId, new Request(url, ++sequence, System.nanoTime(), tracked));
+            if (tracked) lastActivity = System.nanoTime();
+            notifyAll();
+        }
+
+        /**
+         * Учёт завершения запроса, успешного или с ошибкой.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param requestId идентификатор запроса
+         */
+        synchronized void finished(String requestId) {
+            Request request = inflight.remove(requestId);
+            if (request == null) return;
+            request.sequence = ++sequence;
+            completed.addLast(request);
+            if (completed.size() > COMPLETED_HISTORY) completed.removeFirst();
+            if (request.tracked) lastActivity = System.nanoTime();
+            notifyAll();
+        }
+
+        /**
+         * Ожидание отсутствия учитываемых запросов, кроме долгоживущих, в течение заданного времени.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param quietNanos время в нс без учитываемых событий
+         * @param deadline   момент окончания ожидания по {@link System#nanoTime()}
+         * @return true если сеть простаивает, false если истекло время ожидания
+         */
+        synchronized boolean awaitIdle(long quietNanos, long deadline) {
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    long staleAfter = TimeUnit.MILLISECONDS.toNanos(STALE_REQUEST_MILLIS);
+                    long wakeUp = lastActivity + quietNanos;
+                    for (Request request : inflight.values()) {
+                        if (request.tracked && now - request.started < staleAfter) {
+                            wakeUp = Math.max(wakeUp, request.started + staleAfter);
+                        }
+                    }
+                    if (wakeUp - now <= 0) return true;
+                    if (deadline - now <= 0) return false;
+                    TimeUnit.NANOSECONDS.timedWait(this, Math.min(wakeUp, deadline) - now);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /**
+         * Ожидание запроса, завершённого после отметки, ссылка которого соответствует шаблону.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param pattern  шаблон ссылки запроса
+         * @param mark     отметка {@link #sequence()}, снятая до действия, вызывающего запрос
+         * @param deadline момент окончания ожидания по {@link System#nanoTime()}
+         * @return true если запрос завершён, false если истекло время ожидания
+         */
+        synchronized boolean awaitCompleted(Pattern pattern, long mark, long deadline) {
+            try {
+                while (true) {
+                    for (Request request : completed) {
+                        if (request.sequence > mark && pattern.matcher(request.url).find()) return true;
+                    }
+                    long now = System.nanoTime();
+                    if (deadline - now <= 0) return false;
+                    TimeUnit.NANOSECONDS.timedWait(this, deadline - now);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Запрос браузера.
+     *
+     * @author Вилков Андрей
+     */
+    private static final class Request {
+        /**
+         * Ссылка запроса
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final String url;
+        /**
+         * Момент начала запроса по {@link System#nanoTime()}
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final long started;
+        /**
+         * true если запрос учитывается при ожидании отсутствия сетевой активности
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final boolean tracked;
+        /**
+         * Порядковый номер последнего события запроса: начала, а после завершения - завершения
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private long sequence;
+
+        /**
+         * Конструктор класса {@link Request}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param url      ссылка запроса
+         * @param sequence порядковый номер события начала запроса
+         * @param started  момент начала запроса по {@link System#nanoTime()}
+         * @param tracked  true если запрос учитывается при ожидании отсутствия сетевой активности
+         */
+        Request(String url, long sequence, long started, boolean tracked) {
+            this.url = url;
+            this.sequence = sequence;
+            this.started = started;
+            this.tracked = tracked;
+        }
+    }
+}
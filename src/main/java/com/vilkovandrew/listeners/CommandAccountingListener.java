@@ -0,0 +1,354 @@
+package com.vilkovandrew.listeners;
+
+import com.vilkovandrew.helpers.Assertions;
+import com.vilkovandrew.helpers.CommandBudgetMode;
+import com.vilkovandrew.helpers.Properties;
+import io.qameta.allure.Allure;
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.String.format;
+
+/**
+ * Класс для учёта команд WebDriver по шагам {@link io.qameta.allure.Step}.
+ * <p>
+ * Каждый вызов драйвера, элемента и их вспомогательных объектов, обёрнутых
+ * {@link org.openqa.selenium.support.events.EventFiringDecorator}, учитывается в текущем шаге потока.
+ * При завершении шага к нему прикладывается таблица команд с количеством и временем выполнения:
+ * собственные команды шага и команды вместе с вложенными шагами. Если собственных команд шага больше,
+ * чем задано настройкой command.budget, превышение обрабатывается по настройке command.budget_mode.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class CommandAccountingListener implements WebDriverListener, StepLifecycleListener {
+    /**
+     * Журнал превышений допустимого количества команд
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(CommandAccountingListener.class);
+
+    /**
+     * Учёт команд выполняющихся шагов по идентификатору шага
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<String, Tally> TALLIES = new ConcurrentHashMap<>();
+
+    /**
+     * Идентификаторы выполняющихся шагов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<StepResult, String> UUIDS = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Время начала выполняющихся команд потока по {@link System#nanoTime()}
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final ThreadLocal<Deque<Long>> CALLS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Идентификаторы выполняющихся шагов потока, последний - текущий шаг
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final ThreadLocal<Deque<String>> STEPS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Превышения допустимого количества команд в шагах теста, выполняемого потоком
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final ThreadLocal<List<String>> VIOLATIONS = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * Запоминание времени начала команды.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        CALLS.get().push(System.nanoTime());
+    }
+
+    /**
+     * Учёт выполненной команды в текущем шаге.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        account(method);
+    }
+
+    /**
+     * Учёт завершившейся ошибкой команды в текущем шаге.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        account(method);
+    }
+
+    /**
+     * Учёт команды в текущем шаге потока.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param method вызванный метод драйвера или элемента
+     */
+    private static void account(Method method) {
+        Long started = CALLS.get().poll();
+        if (started == null) return;
+        Optional<String> step = Allure.getLifecycle().getCurrentTestCaseOrStep();
+        if (step.isEmpty()) return;
+        Tally tally = TALLIES.get(step.get());
+        if (tally != null) {
+            tally.self(format("%s.%s", method.getDeclaringClass().getSimpleName(), method.getName()), System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Начало учёта команд шага.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Override
+    public void afterStepStart(StepResult result) {
+        Optional<String> uuid = Allure.getLifecycle().getCurrentTestCaseOrStep();
+        if (uuid.isEmpty()) return;
+        UUIDS.put(result, uuid.get());
+        TALLIES.put(uuid.get(), new Tally());
+        STEPS.get().push(uuid.get());
+    }
+
+    /**
+     * Прикрепление таблицы команд к шагу, проверка допустимого количества команд
+     * и передача учтённых команд родительскому шагу.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Override
+    public void beforeStepStop(StepResult result) {
+        String uuid = UUIDS.remove(result);
+        if (uuid == null) return;
+        Tally tally = TALLIES.remove(uuid);
+        STEPS.get().remove(uuid);
+        if (tally == null) return;
+        String parent = STEPS.get().peek();
+        if (parent != null && TALLIES.containsKey(parent)) {
+            TALLIES.get(parent).nested(tally);
+        }
+        if (tally.totalCount() == 0) return;
+
+        int budget = Properties.appProperties.getCommandBudget();
+        CommandBudgetMode mode = Properties.appProperties.getCommandBudgetMode();
+        boolean exceeded = mode != CommandBudgetMode.OFF && budget > 0 && tally.selfCount() > budget;
+        String name = "Команды WebDriver";
+        if (exceeded) {
+            String message = format("Шаг '%s' выполнил %d команд WebDriver при допустимых %d", result.getName(), tally.selfCount(), budget);
+            name = format("%s: превышено допустимое количество (%d > %d)", name, tally.selfCount(), budget);
+            LOG.warn(message);
+            if (mode == CommandBudgetMode.FAIL) {
+                result.setStatus(Status.FAILED);
+                VIOLATIONS.get().add(message);
+            }
+        }
+
+        String source = UUID.randomUUID() + "-attachment.csv";
+        Allure.getLifecycle().writeAttachment(source,
+                new ByteArrayInputStream(tally.csv().getBytes(StandardCharsets.UTF_8)));
+        result.getAttachments().add(new Attachment()
+                .setName(name)
+                .setType("text/csv")
+                .setSource(source));
+    }
+
+    /**
+     * Проверка, что шаги теста, выполненного текущим потоком, не превысили допустимое количество команд,
+     * с очисткой учтённых превышений.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static void assertWithinBudget() {
+        List<String> violations = new ArrayList<>(VIOLATIONS.get());
+        VIOLATIONS.get().clear();
+        Assertions.assertTrue(violations.isEmpty(), String.join("\n", violations));
+    }
+
+    /**
+     * Учёт команд одного шага.
+     *
+     * @author Вилков Андрей
+     */
+    private static class Tally {
+        /**
+         * Собственные команды шага: количество и суммарное время в нс по имени команды
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final Map<String, long[]> self = new TreeMap<>();
+
+        /**
+         * Команды шага вместе с вложенными шагами: количество и суммарное время в нс по имени команды
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final Map<String, long[]> total = new TreeMap<>();
+
+        /**
+         * Учёт собственной команды шага.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param command имя команды
+         * @param nanos   время выполнения в нс
+         */
+        private synchronized void self(String command, long nanos) {
+            add(self, command, 1, nanos);
+            add(total, command, 1, nanos);
+        }
+
+        /**
+         * Учёт команд завершившегося вложенного шага.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param child учёт команд вложенного шага
+         */
+        private synchronized void nested(Tally child) {
+            synchronized (child) {
+                child.total.forEach((command, value) -> add(total, command, value[0], value[1]));
+            }
+        }
+
+        /**
+         * Получение количества собственных команд шага.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return количество команд
+         */
+        private synchronized long selfCount() {
+            return self.values().stream().mapToLong(value -> value[0]).sum();
+        }
+
+        /**
+         * Получение количества команд шага вместе с вложенными шагами.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return количество команд
+         */
+        private synchronized long totalCount() {
+            return total.values().stream().mapToLong(value -> value[0]).sum();
+        }
+
+        /**
+         * Получение таблицы команд шага.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return CSV таблица команд в порядке имён и итоговая строка
+         */
+        private synchronized String csv() {
+            StringBuilder csv = new StringBuilder("Команда;Количество в шаге;Время в шаге, мс;Количество всего;Время всего, мс\n");
+            long[] selfSum = new long[2];
+            long[] totalSum = new long[2];
+            total.forEach((command, value) -> {
+                long[] own = self.getOrDefault(command, new long[2]);
+                csv.append(command).append(';')
+                        .append(own[0]).append(';').append(millis(own[1])).append(';')
+                        .append(value[0]).append(';').append(millis(value[1])).append('\n');
+                selfSum[0] += own[0];
+                selfSum[1] += own[1];
+                totalSum[0] += value[0];
+                totalSum[1] += value[1];
+            });
+            return csv.append("Итого;")
+                    .append(selfSum[0]).append(';').append(millis(selfSum[1])).append(';')
+                    .append(totalSum[0]).append(';').append(millis(totalSum[1])).append('\n')
+                    .toString();
+        }
+
+        /**
+         * Добавление команд к таблице.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param table   таблица команд
+         * @param command имя команды
+         * @param count   количество команд
+         * @param nanos   суммарное время выполнения в нс
+         */
+        private static void add(Map<String, long[]> table, String command, long count, long nanos) {
+            long[] value = table.computeIfAbsent(command, key -> new long[2]);
+            value[0] += count;
+            value[1] += nanos;
+        }
+
+        /**
+         * Перевод наносекунд в миллисекунды с точностью до десятых.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param nanos время в наносекундах
+         * @return время в миллисекундах
+         */
+        private static double millis(long nanos) {
+            return Math.round(nanos / 100_000.0) / 10.0;
+        }
+    }
+}
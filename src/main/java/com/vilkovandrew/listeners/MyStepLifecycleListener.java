@@ -1,17 +1,16 @@
 package com.vilkovandrew.listeners;
 
 import com.codeborne.selenide.Selenide;
-import com.vilkovandrew.helpers.Assertions;
+import com.codeborne.selenide.WebDriverRunner;
 import com.vilkovandrew.helpers.Properties;
+import com.vilkovandrew.helpers.ScreenshotPipeline;
 import io.qameta.allure.Allure;
 import io.qameta.allure.listener.StepLifecycleListener;
 import io.qameta.allure.model.Status;
 import io.qameta.allure.model.StepResult;
 import org.openqa.selenium.OutputType;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.util.Objects;
+import java.io.ByteArrayInputStream;
 
 /**
  * Класс для реакции на события жизненного цикла шага {@link io.qameta.allure.Step}.
@@ -22,7 +21,10 @@ public class MyStepLifecycleListener implements StepLifecycleListener {
 
     /**
      * Создание скриншотов перед завершением шага.
-     *
+     * <p>
+     * При включённом screenshot.async скриншот обрабатывается в фоне через {@link ScreenshotPipeline},
+     * скриншоты неуспешных шагов не отбрасываются как повтор и не учитываются в лимите объёма.
+     * </p>
      * <p>
      * Автор: Вилков Андрей
      * </p>
@@ -38,16 +40,25 @@ public class MyStepLifecycleListener implements StepLifecycleListener {
                                 &&
                                 !result.getName().equalsIgnoreCase("Получаем список товаров с текущей страницы")
                                 &&
+                                !result.getName().equalsIgnoreCase("Получаем данные товаров с текущей страницы")
+                                &&
                                 !result.getName().startsWith("Проверяем что товар соответствует фильтру")
                                 &&
+                                !result.getName().startsWith("Проверяем что товар соответствует условию")
+                                &&
+                                !result.getName().startsWith("Проверка соответствия товаров условию")
+                                &&
                                 !result.getName().startsWith("Установка значений для фильтров")
                         )
-        )
-            try {
-                Allure.addAttachment(Long.toString(System.currentTimeMillis()),
-                        Files.newInputStream(Objects.requireNonNull(Selenide.screenshot(OutputType.FILE)).toPath()));
-            } catch (IOException e) {
-                Assertions.fail("Не удалось сохранить скриншот");
+        ) {
+            boolean important = !result.getStatus().equals(Status.PASSED);
+            if (Properties.appProperties.isScreenshotAsync()) {
+                ScreenshotPipeline.capture(result, important);
+            } else if (WebDriverRunner.hasWebDriverStarted()) {
+                byte[] screenshot = Selenide.screenshot(OutputType.BYTES);
+                if (screenshot != null)
+                    Allure.addAttachment(Long.toString(System.currentTimeMillis()), new ByteArrayInputStream(screenshot));
             }
+        }
     }
 }
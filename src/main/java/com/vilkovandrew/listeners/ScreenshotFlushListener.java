@@ -0,0 +1,25 @@
+package com.vilkovandrew.listeners;
+
+import com.vilkovandrew.helpers.ScreenshotPipeline;
+import io.qameta.allure.listener.TestLifecycleListener;
+import io.qameta.allure.model.TestResult;
+
+/**
+ * Класс для реакции на события жизненного цикла теста.
+ *
+ * @author Вилков Андрей
+ */
+public class ScreenshotFlushListener implements TestLifecycleListener {
+
+    /**
+     * Ожидание фоновой обработки скриншотов теста перед записью его результата.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Override
+    public void beforeTestWrite(TestResult result) {
+        ScreenshotPipeline.awaitTest(result.getUuid());
+    }
+}
@@ -0,0 +1,211 @@
+package com.vilkovandrew.listeners;
+
+import com.vilkovandrew.helpers.Properties;
+import io.qameta.allure.Allure;
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.listener.TestLifecycleListener;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.Parameter;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Класс для сбора времени выполнения шагов {@link io.qameta.allure.Step}.
+ * <p>
+ * Длительность каждого шага записывается в гистограмму по шаблону имени шага: значения параметров шага
+ * заменяются их именами, числа - символом N. К каждому тесту прикладывается таблица перцентилей
+ * с начала запуска, по завершении запуска таблица записывается в JSON файл.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class StepTimingListener implements StepLifecycleListener, TestLifecycleListener {
+    /**
+     * Журнал записи времени выполнения шагов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(StepTimingListener.class);
+
+    /**
+     * Количество значащих цифр гистограмм
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * Время начала выполняющихся шагов по {@link System#nanoTime()}
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<StepResult, Long> STARTED = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Гистограммы длительности шагов в микросекундах по шаблону имени шага
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(StepTimingListener::writeJson, "step-timing-report"));
+    }
+
+    /**
+     * Запоминание времени начала шага.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Override
+    public void beforeStepStart(StepResult result) {
+        STARTED.put(result, System.nanoTime());
+    }
+
+    /**
+     * Запись длительности завершившегося шага.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Override
+    public void afterStepStop(StepResult result) {
+        Long started = STARTED.remove(result);
+        if (started == null) return;
+        long micros = (System.nanoTime() - started) / 1000;
+        HISTOGRAMS.computeIfAbsent(template(result), name -> new ConcurrentHistogram(SIGNIFICANT_DIGITS))
+                .recordValue(Math.max(0, micros));
+    }
+
+    /**
+     * Прикрепление таблицы перцентилей длительности шагов с начала запуска перед записью результата теста.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Override
+    public void beforeTestWrite(TestResult result) {
+        if (HISTOGRAMS.isEmpty()) return;
+        StringBuilder csv = new StringBuilder("Шаг;Количество;p50, мс;p90, мс;p99, мс;max, мс\n");
+        for (Map<String, Object> row : rows()) {
+            csv.append(row.get("name")).append(';')
+                    .append(row.get("count")).append(';')
+                    .append(row.get("p50")).append(';')
+                    .append(row.get("p90")).append(';')
+                    .append(row.get("p99")).append(';')
+                    .append(row.get("max")).append('\n');
+        }
+        String source = UUID.randomUUID() + "-attachment.csv";
+        Allure.getLifecycle().writeAttachment(source,
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        result.getAttachments().add(new Attachment()
+                .setName("Время выполнения шагов с начала запуска")
+                .setType("text/csv")
+                .setSource(source));
+    }
+
+    /**
+     * Получение шаблона имени шага.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param result шаг
+     * @return имя шага, в котором значения параметров заменены их именами, а числа - символом N
+     */
+    private static String template(StepResult result) {
+        String name = result.getName() == null ? "" : result.getName();
+        for (Parameter parameter : result.getParameters()) {
+            if (parameter.getValue() != null && !parameter.getValue().isEmpty()) {
+                name = name.replace(parameter.getValue(), "{" + parameter.getName() + "}");
+            }
+        }
+        return name.replaceAll("\\d+(\\s\\d{3})*", "N");
+    }
+
+    /**
+     * Получение перцентилей длительности шагов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return строки таблицы в порядке имён шагов
+     */
+    private static List<Map<String, Object>> rows() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        new TreeMap<>(HISTOGRAMS).forEach((name, histogram) -> {
+            Histogram copy = histogram.copy();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("name", name);
+            row.put("count", copy.getTotalCount());
+            row.put("p50", millis(copy.getValueAtPercentile(50)));
+            row.put("p90", millis(copy.getValueAtPercentile(90)));
+            row.put("p99", millis(copy.getValueAtPercentile(99)));
+            row.put("max", millis(copy.getMaxValue()));
+            rows.add(row);
+        });
+        return rows;
+    }
+
+    /**
+     * Перевод микросекунд в миллисекунды с точностью до десятых.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param micros время в микросекундах
+     * @return время в миллисекундах
+     */
+    private static double millis(long micros) {
+        return Math.round(micros / 100.0) / 10.0;
+    }
+
+    /**
+     * Запись перцентилей длительности шагов за запуск в JSON файл.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static void writeJson() {
+        if (HISTOGRAMS.isEmpty()) return;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("unit", "ms");
+        report.put("timestamp", System.currentTimeMillis());
+        report.put("steps", rows());
+        try {
+            Path file = Path.of(Properties.appProperties.getTimingReportFile());
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            Files.writeString(file, new Json().toJson(report), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOG.warn("Не удалось записать время выполнения шагов", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+/**
+ * Класс предоставляющий варианты проверки товаров, у которых проверяемое значение отсутствует
+ * (равно {@link Product#NO_PRICE}).
+ *
+ * @author Вилков Андрей
+ */
+public enum AbsentValuePolicy {
+    /**
+     * Товар без значения соответствует фильтру
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    MATCH,
+    /**
+     * Товар без значения не соответствует фильтру
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    MISMATCH;
+}
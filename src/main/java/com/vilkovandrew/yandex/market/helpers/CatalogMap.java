@@ -0,0 +1,203 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import com.vilkovandrew.helpers.Properties;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Карта каталога: ссылки на разделы категорий, сохраняемые на диске между запусками.
+ * <p>
+ * Карта хранится в файле, заданном настройкой catalog.map_file, в виде
+ * {@literal категория -> {updatedAt, items: раздел -> ссылка}}. Ссылки категории считаются устаревшими
+ * по истечении catalog.map_ttl_hours часов с момента её обновления. Имена сравниваются без учёта регистра.
+ * Карта только ускоряет навигацию, поэтому ошибка её сохранения записывается в журнал и не прерывает тест.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class CatalogMap {
+    /**
+     * Журнал сохранения карты каталога
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogMap.class);
+
+    /**
+     * Категории каталога по имени в нижнем регистре, загружаются из файла при первом обращении
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static Map<String, Map<String, Object>> sections;
+
+    /**
+     * Поиск актуальной ссылки на раздел категории.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param sectionName имя категории
+     * @param itemName    имя раздела
+     * @return ссылка на раздел, пусто если раздел не известен или ссылки категории устарели
+     */
+    public static synchronized Optional<String> find(String sectionName, String itemName) {
+        return items(sectionName).map(items -> items.get(key(itemName))).map(Object::toString);
+    }
+
+    /**
+     * Проверка наличия актуальных ссылок на разделы категории.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param sectionName имя категории
+     * @return true если ссылки категории известны и не устарели
+     */
+    public static synchronized boolean contains(String sectionName) {
+        return items(sectionName).isPresent();
+    }
+
+    /**
+     * Замена ссылок на разделы категории с сохранением карты на диск.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param sectionName имя категории
+     * @param items       ссылки по имени раздела
+     */
+    public static synchronized void put(String sectionName, Map<String, String> items) {
+        Map<String, Object> links = new LinkedHashMap<>();
+        items.forEach((name, url) -> links.put(key(name), url));
+        Map<String, Object> section = new LinkedHashMap<>();
+        section.put("updatedAt", System.currentTimeMillis());
+        section.put("items", links);
+        sections().put(key(sectionName), section);
+        save();
+    }
+
+    /**
+     * Удаление ссылок на разделы категории, например если сохранённая ссылка перестала открывать раздел.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param sectionName имя категории
+     */
+    public static synchronized void invalidate(String sectionName) {
+        if (sections().remove(key(sectionName)) != null) {
+            save();
+        }
+    }
+
+    /**
+     * Получение актуальных ссылок на разделы категории.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param sectionName имя категории
+     * @return ссылки по имени раздела в нижнем регистре, пусто если категория не известна или устарела
+     */
+    @SuppressWarnings("unchecked")
+    private static Optional<Map<String, Object>> items(String sectionName) {
+        Map<String, Object> section = sections().get(key(sectionName));
+        if (section == null || !(section.get("updatedAt") instanceof Number) || !(section.get("items") instanceof Map)) {
+            return Optional.empty();
+        }
+        long age = System.currentTimeMillis() - ((Number) section.get("updatedAt")).longValue();
+        if (age > TimeUnit.HOURS.toMillis(Properties.appProperties.getCatalogMapTtlHours())) {
+            return Optional.empty();
+        }
+        return Optional.of((Map<String, Object>) section.get("items"));
+    }
+
+    /**
+     * Получение категорий каталога с загрузкой из файла при первом обращении.
+     * <p>
+     * Повреждённый файл не считается ошибкой: карта строится заново.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return категории каталога по имени в нижнем регистре
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> sections() {
+        if (sections == null) {
+            sections = new LinkedHashMap<>();
+            Path file = file();
+            if (Files.exists(file)) {
+                try {
+                    Map<String, Object> stored = new Json().toType(Files.readString(file, StandardCharsets.UTF_8), Json.MAP_TYPE);
+                    stored.forEach((name, section) -> {
+                        if (section instanceof Map) sections.put(name, (Map<String, Object>) section);
+                    });
+                } catch (IOException | JsonException e) {
+                    sections.clear();
+                }
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * Сохранение карты на диск через временный файл, чтобы не оставить частично записанный файл.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static void save() {
+        Path file = file();
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "catalog-map", ".tmp");
+            Files.writeString(temp, new Json().toJson(sections()), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Не удалось сохранить карту каталога в '{}'", file, e);
+        }
+    }
+
+    /**
+     * Получение пути до файла карты каталога.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return путь до файла
+     */
+    private static Path file() {
+        return Path.of(Properties.appProperties.getCatalogMapFile());
+    }
+
+    /**
+     * Получение ключа карты по имени категории или раздела.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param name имя
+     * @return имя без крайних пробелов в нижнем регистре
+     */
+    private static String key(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -28,6 +28,14 @@ public class CheckBoxFilter extends Filter {
      */
     private final List<String> values;
 
+    /**
+     * Параметры фильтра в нижнем регистре
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String[] lowerCaseValues;
+
     /**
      * Конструктор класса {@link CheckBoxFilter}.
      * <p>
@@ -42,6 +50,7 @@ public class CheckBoxFilter extends Filter {
     public CheckBoxFilter(String filterName, Function<Product, String> checkingField, String... values) {
         super(FilterType.CHECKBOX, filterName);
         this.values = Arrays.asList(values);
+        this.lowerCaseValues = Arrays.stream(values).map(String::toLowerCase).toArray(String[]::new);
         this.checkingField = checkingField;
     }
 
@@ -68,12 +77,26 @@ public class CheckBoxFilter extends Filter {
      */
     @Override
     public boolean isMatches(Product product) {
-        for (String value : values) {
-            if (checkingField.apply(product).toLowerCase().contains(value.toLowerCase())) return true;
+        String fieldValue = checkingField.apply(product).toLowerCase();
+        for (String value : lowerCaseValues) {
+            if (fieldValue.contains(value)) return true;
         }
         return false;
     }
 
+    /**
+     * Оценочная стоимость проверки товара фильтром.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return относительная стоимость проверки, растущая с количеством параметров фильтра
+     */
+    @Override
+    public double estimatedCost() {
+        return 2 + lowerCaseValues.length;
+    }
+
     /**
      * Получение строкового представления фильтра.
      * <p>
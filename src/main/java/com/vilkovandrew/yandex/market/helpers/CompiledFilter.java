@@ -0,0 +1,505 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Класс представляющий скомпилированное выражение {@link FilterExpression}.
+ * <p>
+ * При компиляции вложенные И/ИЛИ одного вида объединяются, двойные отрицания убираются.
+ * Операнды И/ИЛИ проверяются до первого определяющего результата, порядок операндов
+ * периодически пересчитывается по измеренной стоимости проверки и доле отсеиваемых товаров,
+ * чтобы дешёвые и наиболее избирательные проверки выполнялись первыми. Пока время проверки измерено
+ * не для всех операндов, они упорядочиваются по оценочной стоимости, так как она не сравнима с измеренной.
+ * </p>
+ * <p>
+ * Счётчики статистики не синхронизируются: при проверке из нескольких потоков
+ * они приблизительны, что влияет только на порядок проверок, но не на результат.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class CompiledFilter {
+    /**
+     * Количество проверок операнда между пересчётами порядка операндов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final int REORDER_INTERVAL = 256;
+
+    /**
+     * Маска номера проверки, для которой измеряется время: измеряется каждая 16-я проверка
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final int TIMING_MASK = 15;
+
+    /**
+     * Исходное выражение
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final FilterExpression expression;
+
+    /**
+     * Корень скомпилированного выражения
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Node root;
+
+    /**
+     * Конструктор класса {@link CompiledFilter}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param expression исходное выражение
+     */
+    CompiledFilter(FilterExpression expression) {
+        this.expression = expression;
+        this.root = compile(expression);
+    }
+
+    /**
+     * Конструктор скомпилированной части выражения, разделяющей узлы и статистику с исходным выражением.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param root узел части выражения
+     */
+    private CompiledFilter(Node root) {
+        this.expression = root.expression;
+        this.root = root;
+    }
+
+    /**
+     * Проверка соответствия товара выражению.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param product проверяемый товар
+     * @return true если товар соответствует выражению, в противном случае false
+     */
+    public boolean test(Product product) {
+        return root.test(product);
+    }
+
+    /**
+     * Проверка соответствия товара выражению с получением причин несоответствия.
+     * <p>
+     * Причины собираются только для товаров, не прошедших проверку. Части выражения с отрицанием или ИЛИ
+     * передаются в результат уже скомпилированными, чтобы их повторная проверка не требовала компиляции.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param product проверяемый товар
+     * @return {@link MatchReport} результат проверки
+     */
+    public MatchReport evaluate(Product product) {
+        if (root.test(product)) return MatchReport.MATCHED;
+        List<Node> nodes = new ArrayList<>();
+        root.collectMismatches(product, nodes);
+        List<FilterExpression> mismatches = new ArrayList<>();
+        List<CompiledFilter> conditions = new ArrayList<>();
+        for (Node node : nodes) {
+            mismatches.add(node.expression);
+            if (!(node instanceof LeafNode)) conditions.add(new CompiledFilter(node));
+        }
+        return new MatchReport(mismatches, conditions);
+    }
+
+    /**
+     * Получение исходного выражения.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return исходное выражение
+     */
+    public FilterExpression getExpression() {
+        return expression;
+    }
+
+    /**
+     * Получение строкового представления выражения в текущем порядке проверок.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return строковое представление выражения
+     */
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+
+    /**
+     * Компиляция выражения.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param expression выражение
+     * @return узел скомпилированного выражения
+     */
+    private static Node compile(FilterExpression expression) {
+        if (expression instanceof FilterExpression.Leaf) {
+            return new LeafNode((FilterExpression.Leaf) expression);
+        }
+        if (expression instanceof FilterExpression.Not) {
+            FilterExpression operand = ((FilterExpression.Not) expression).operand;
+            if (operand instanceof FilterExpression.Not) {
+                return compile(((FilterExpression.Not) operand).operand);
+            }
+            return new NotNode(expression, compile(operand));
+        }
+        FilterExpression.Group group = (FilterExpression.Group) expression;
+        List<Node> operands = new ArrayList<>();
+        for (FilterExpression operand : group.operands) {
+            Node node = compile(operand);
+            if (node instanceof GroupNode && ((GroupNode) node).conjunction == group.conjunction) {
+                operands.addAll(Arrays.asList(((GroupNode) node).operands));
+            } else {
+                operands.add(node);
+            }
+        }
+        if (operands.size() == 1) return operands.get(0);
+        return new GroupNode(group, group.conjunction, operands);
+    }
+
+    /**
+     * Узел скомпилированного выражения со статистикой проверок.
+     *
+     * @author Вилков Андрей
+     */
+    private abstract static class Node {
+        /**
+         * Выражение, соответствующее узлу
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        final FilterExpression expression;
+        /**
+         * Количество проверок
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        long evaluations;
+        /**
+         * Количество успешных проверок
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        long passes;
+        /**
+         * Суммарное время измеренных проверок в наносекундах
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        long nanos;
+        /**
+         * Количество измеренных проверок
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        long timed;
+
+        /**
+         * Конструктор класса {@link Node}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param expression выражение, соответствующее узлу
+         */
+        Node(FilterExpression expression) {
+            this.expression = expression;
+        }
+
+        /**
+         * Проверка товара с обновлением статистики.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param product проверяемый товар
+         * @return результат проверки
+         */
+        final boolean test(Product product) {
+            boolean result;
+            if ((evaluations++ & TIMING_MASK) == 0) {
+                long start = System.nanoTime();
+                result = evaluate(product);
+                nanos += System.nanoTime() - start;
+                timed++;
+            } else {
+                result = evaluate(product);
+            }
+            if (result) passes++;
+            return result;
+        }
+
+        /**
+         * Средняя измеренная стоимость проверки.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return время проверки в наносекундах, 0 до первого измерения
+         */
+        double cost() {
+            return timed == 0 ? 0 : (double) nanos / timed;
+        }
+
+        /**
+         * Доля успешных проверок, 0.5 до первой проверки.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return доля успешных проверок
+         */
+        double passRate() {
+            return evaluations == 0 ? 0.5 : (double) passes / evaluations;
+        }
+
+        /**
+         * Проверка товара.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param product проверяемый товар
+         * @return результат проверки
+         */
+        abstract boolean evaluate(Product product);
+
+        /**
+         * Оценочная стоимость проверки до появления измерений.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return оценочная стоимость в условных единицах {@link Filter#estimatedCost()}
+         */
+        abstract double estimatedCost();
+
+        /**
+         * Добавление причин несоответствия товара, не прошедшего проверку узла.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param product    проверяемый товар
+         * @param mismatches список узлов, которым товар не соответствует
+         */
+        abstract void collectMismatches(Product product, List<Node> mismatches);
+    }
+
+    /**
+     * Узел проверки одного фильтра.
+     *
+     * @author Вилков Андрей
+     */
+    private static final class LeafNode extends Node {
+        /**
+         * Фильтр
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final Filter filter;
+
+        /**
+         * Конструктор класса {@link LeafNode}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param leaf выражение из одного фильтра
+         */
+        LeafNode(FilterExpression.Leaf leaf) {
+            super(leaf);
+            this.filter = leaf.filter;
+        }
+
+        @Override
+        boolean evaluate(Product product) {
+            return filter.isMatches(product);
+        }
+
+        @Override
+        double estimatedCost() {
+            return filter.estimatedCost();
+        }
+
+        @Override
+        void collectMismatches(Product product, List<Node> mismatches) {
+            mismatches.add(this);
+        }
+
+        @Override
+        public String toString() {
+            return expression.toString();
+        }
+    }
+
+    /**
+     * Узел отрицания.
+     *
+     * @author Вилков Андрей
+     */
+    private static final class NotNode extends Node {
+        /**
+         * Операнд
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final Node operand;
+
+        /**
+         * Конструктор класса {@link NotNode}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param expression выражение НЕ
+         * @param operand    операнд
+         */
+        NotNode(FilterExpression expression, Node operand) {
+            super(expression);
+            this.operand = operand;
+        }
+
+        @Override
+        boolean evaluate(Product product) {
+            return !operand.test(product);
+        }
+
+        @Override
+        double estimatedCost() {
+            return operand.estimatedCost();
+        }
+
+        @Override
+        void collectMismatches(Product product, List<Node> mismatches) {
+            mismatches.add(this);
+        }
+
+        @Override
+        public String toString() {
+            return "НЕ " + operand;
+        }
+    }
+
+    /**
+     * Узел И/ИЛИ с упорядочиванием операндов.
+     *
+     * @author Вилков Андрей
+     */
+    private static final class GroupNode extends Node {
+        /**
+         * true для выражения И, false для выражения ИЛИ
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final boolean conjunction;
+        /**
+         * Операнды в текущем порядке проверки
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private volatile Node[] operands;
+
+        /**
+         * Конструктор класса {@link GroupNode}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param expression  выражение И/ИЛИ
+         * @param conjunction true для выражения И, false для выражения ИЛИ
+         * @param operands    операнды
+         */
+        GroupNode(FilterExpression expression, boolean conjunction, List<Node> operands) {
+            super(expression);
+            this.conjunction = conjunction;
+            this.operands = operands.toArray(new Node[0]);
+            reorder();
+        }
+
+        @Override
+        boolean evaluate(Product product) {
+            if (evaluations % REORDER_INTERVAL == 0) reorder();
+            for (Node operand : operands) {
+                if (operand.test(product) != conjunction) return !conjunction;
+            }
+            return conjunction;
+        }
+
+        @Override
+        double estimatedCost() {
+            return Arrays.stream(operands).mapToDouble(Node::estimatedCost).sum();
+        }
+
+        @Override
+        void collectMismatches(Product product, List<Node> mismatches) {
+            if (!conjunction) {
+                mismatches.add(this);
+                return;
+            }
+            for (Node operand : operands) {
+                if (!operand.evaluate(product)) operand.collectMismatches(product, mismatches);
+            }
+        }
+
+        /**
+         * Упорядочивание операндов по возрастанию отношения стоимости проверки к вероятности
+         * того, что проверка операнда определит результат всего выражения.
+         * <p>
+         * Стоимость берётся измеренной, только если время проверки измерено для всех операндов,
+         * иначе - оценочной, чтобы не сравнивать наносекунды с условными единицами.
+         * </p>
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private void reorder() {
+            Node[] ordered = operands.clone();
+            boolean measured = Arrays.stream(ordered).allMatch(operand -> operand.timed > 0);
+            Arrays.sort(ordered, Comparator.comparingDouble(operand ->
+                    (measured ? operand.cost() : operand.estimatedCost())
+                            / Math.max(conjunction ? 1 - operand.passRate() : operand.passRate(), 0.001)));
+            operands = ordered;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("(");
+            for (int i = 0; i < operands.length; i++) {
+                if (i > 0) builder.append(conjunction ? " И " : " ИЛИ ");
+                builder.append(operands[i]);
+            }
+            return builder.append(")").toString();
+        }
+    }
+}
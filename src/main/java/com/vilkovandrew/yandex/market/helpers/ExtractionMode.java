@@ -0,0 +1,23 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+/**
+ * Класс предоставляющий способы получения данных о товарах со страницы
+ *
+ * @author Вилков Андрей
+ */
+public enum ExtractionMode {
+    /**
+     * Получение данных всех товаров страницы одним вызовом скрипта
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    BATCH,
+    /**
+     * Получение данных каждого товара отдельными обращениями к его элементу
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    ELEMENT;
+}
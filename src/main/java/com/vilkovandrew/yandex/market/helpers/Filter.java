@@ -72,6 +72,21 @@ public abstract class Filter {
      */
     public abstract boolean isMatches(Product product);
 
+    /**
+     * Оценочная стоимость проверки товара фильтром.
+     * <p>
+     * Используется для начального порядка проверок в {@link CompiledFilter}, пока нет измерений.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return относительная стоимость проверки
+     */
+    public double estimatedCost() {
+        return 1;
+    }
+
 
     /**
      * Получение строкового представления фильтра.
@@ -0,0 +1,23 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+/**
+ * Класс предоставляющий способы установки фильтров на странице результатов поиска
+ *
+ * @author Вилков Андрей
+ */
+public enum FilterApplyMode {
+    /**
+     * Ввод значений и выбор пунктов в блоках фильтров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    UI,
+    /**
+     * Переход по ссылке с параметрами фильтров, идентификаторы значений берутся из блоков фильтров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    URL;
+}
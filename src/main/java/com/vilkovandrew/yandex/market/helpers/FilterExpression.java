@@ -0,0 +1,243 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Класс представляющий логическое выражение над фильтрами.
+ * <p>
+ * Выражение строится из фильтров {@link Filter} операциями И, ИЛИ, НЕ
+ * и перед проверкой товаров компилируется в {@link CompiledFilter}.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public abstract class FilterExpression {
+
+    /**
+     * Создание выражения из одного фильтра.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filter фильтр
+     * @return выражение
+     */
+    public static FilterExpression of(Filter filter) {
+        return new Leaf(filter);
+    }
+
+    /**
+     * Создание выражения, истинного если товар соответствует всем фильтрам.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filters список фильтров
+     * @return выражение
+     */
+    public static FilterExpression allOf(List<? extends Filter> filters) {
+        return and(filters.stream().map(FilterExpression::of).toArray(FilterExpression[]::new));
+    }
+
+    /**
+     * Создание выражения И.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param operands операнды
+     * @return выражение
+     */
+    public static FilterExpression and(FilterExpression... operands) {
+        return new Group(true, Arrays.asList(operands));
+    }
+
+    /**
+     * Создание выражения ИЛИ.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param operands операнды
+     * @return выражение
+     */
+    public static FilterExpression or(FilterExpression... operands) {
+        return new Group(false, Arrays.asList(operands));
+    }
+
+    /**
+     * Создание выражения НЕ.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param operand операнд
+     * @return выражение
+     */
+    public static FilterExpression not(FilterExpression operand) {
+        return new Not(operand);
+    }
+
+    /**
+     * Получение фильтров, входящих в выражение без отрицания.
+     * <p>
+     * Такие фильтры можно установить на странице перед проверкой товаров.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return список фильтров
+     */
+    public List<Filter> getPositiveFilters() {
+        List<Filter> filters = new ArrayList<>();
+        collectPositiveFilters(filters);
+        return filters;
+    }
+
+    /**
+     * Компиляция выражения для проверки товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return скомпилированное выражение
+     */
+    public CompiledFilter compile() {
+        return new CompiledFilter(this);
+    }
+
+    /**
+     * Добавление в список фильтров, входящих в выражение без отрицания.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filters список, в который добавляются фильтры
+     */
+    abstract void collectPositiveFilters(List<Filter> filters);
+
+    /**
+     * Выражение из одного фильтра.
+     *
+     * @author Вилков Андрей
+     */
+    static final class Leaf extends FilterExpression {
+        /**
+         * Фильтр
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        final Filter filter;
+
+        /**
+         * Конструктор класса {@link Leaf}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param filter фильтр
+         */
+        Leaf(Filter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        void collectPositiveFilters(List<Filter> filters) {
+            filters.add(filter);
+        }
+
+        @Override
+        public String toString() {
+            return filter.toString();
+        }
+    }
+
+    /**
+     * Выражение И или ИЛИ над несколькими операндами.
+     *
+     * @author Вилков Андрей
+     */
+    static final class Group extends FilterExpression {
+        /**
+         * true для выражения И, false для выражения ИЛИ
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        final boolean conjunction;
+        /**
+         * Операнды
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        final List<FilterExpression> operands;
+
+        /**
+         * Конструктор класса {@link Group}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param conjunction true для выражения И, false для выражения ИЛИ
+         * @param operands    операнды
+         */
+        Group(boolean conjunction, List<FilterExpression> operands) {
+            this.conjunction = conjunction;
+            this.operands = List.copyOf(operands);
+        }
+
+        @Override
+        void collectPositiveFilters(List<Filter> filters) {
+            operands.forEach(operand -> operand.collectPositiveFilters(filters));
+        }
+
+        @Override
+        public String toString() {
+            return operands.stream()
+                    .map(FilterExpression::toString)
+                    .collect(Collectors.joining(conjunction ? " И " : " ИЛИ ", "(", ")"));
+        }
+    }
+
+    /**
+     * Выражение НЕ.
+     *
+     * @author Вилков Андрей
+     */
+    static final class Not extends FilterExpression {
+        /**
+         * Операнд
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        final FilterExpression operand;
+
+        /**
+         * Конструктор класса {@link Not}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param operand операнд
+         */
+        Not(FilterExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        void collectPositiveFilters(List<Filter> filters) {
+        }
+
+        @Override
+        public String toString() {
+            return "НЕ " + operand;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Класс представляющий описание блоков фильтров страницы, полученное одним вызовом скрипта.
+ * <p>
+ * Поиск блока по имени выполняется без обращений к браузеру.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class FilterIndex {
+    /**
+     * Блоки фильтров по нормализованному заголовку
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Map<String, Entry> byName = new HashMap<>();
+
+    /**
+     * Блоки фильтров в порядке на странице
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * Конструктор класса {@link FilterIndex}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param blocks описания блоков фильтров: id, name, text, type и values со списком id и label
+     */
+    @SuppressWarnings("unchecked")
+    public FilterIndex(List<Map<String, Object>> blocks) {
+        for (Map<String, Object> block : blocks) {
+            Map<String, String> values = new LinkedHashMap<>();
+            String id = (String) block.get("id");
+            for (Map<String, Object> value : (List<Map<String, Object>>) block.get("values")) {
+                String valueId = (String) value.get("id");
+                if (valueId.startsWith(id + "_")) {
+                    valueId = valueId.substring(id.length() + 1);
+                }
+                values.put(normalize((String) value.get("label")), valueId);
+            }
+            String type = (String) block.get("type");
+            Entry entry = new Entry(id, normalize((String) block.get("name")), normalize((String) block.get("text")),
+                    type == null ? null : FilterType.valueOf(type), values);
+            entries.add(entry);
+            byName.putIfAbsent(entry.name, entry);
+        }
+    }
+
+    /**
+     * Приведение имени к виду для сравнения: без учёта регистра и лишних пробелов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param name имя
+     * @return нормализованное имя
+     */
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().replaceAll("\\s+", " ").toUpperCase();
+    }
+
+    /**
+     * Поиск блока фильтра по имени.
+     * <p>
+     * Сначала ищется блок с совпадающим заголовком, затем блок, текст которого содержит имя.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filterName имя фильтра
+     * @return {@link Optional<Entry>} найденный блок фильтра
+     */
+    public Optional<Entry> find(String filterName) {
+        String name = normalize(filterName);
+        Entry entry = byName.get(name);
+        if (entry != null) return Optional.of(entry);
+        return entries.stream()
+                .filter(e -> e.name.contains(name) || e.text.contains(name))
+                .findFirst();
+    }
+
+    /**
+     * Класс представляющий блок фильтра.
+     *
+     * @author Вилков Андрей
+     */
+    public static final class Entry {
+        /**
+         * Идентификатор блока, значение атрибута data-filter-id
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final String id;
+        /**
+         * Нормализованный заголовок блока
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final String name;
+        /**
+         * Нормализованный текст блока
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final String text;
+        /**
+         * Тип фильтра, null если не определён
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final FilterType type;
+        /**
+         * Идентификаторы отображаемых значений по нормализованному названию
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final Map<String, String> values;
+
+        /**
+         * Конструктор класса {@link Entry}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param id     идентификатор блока, значение атрибута data-filter-id
+         * @param name   нормализованный заголовок блока
+         * @param text   нормализованный текст блока
+         * @param type   тип фильтра, null если не определён
+         * @param values идентификаторы отображаемых значений по нормализованному названию
+         */
+        Entry(String id, String name, String text, FilterType type, Map<String, String> values) {
+            this.id = id;
+            this.name = name;
+            this.text = text;
+            this.type = type;
+            this.values = Collections.unmodifiableMap(values);
+        }
+
+        /**
+         * Получение идентификатора блока фильтра.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return значение атрибута data-filter-id
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Получение типа фильтра.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return {@link FilterType} тип фильтра, null если не определён
+         */
+        public FilterType getType() {
+            return type;
+        }
+
+        /**
+         * Получение идентификатора отображаемого значения по названию.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param label название значения
+         * @return идентификатор значения для параметра glfilter, null если значение не отображается
+         */
+        public String getValueId(String label) {
+            return values.get(normalize(label));
+        }
+
+        /**
+         * Получение идентификаторов отображаемых значений.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return идентификаторы значений по нормализованному названию
+         */
+        public Map<String, String> getValues() {
+            return values;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import com.vilkovandrew.helpers.Properties;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Класс для получения товаров со страниц результатов поиска без браузера.
+ * <p>
+ * Страницы загружаются {@link HttpClient} по HTTP/2, одновременно выполняется не больше запросов,
+ * чем задано настройкой http.max_in_flight. Ответ разбирается {@link ListingHtmlParser} по мере получения,
+ * разбор всех страниц выполняется в одном потоке.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class ListingCrawler {
+    /**
+     * Шаблон кодировки в заголовке Content-Type
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Pattern CHARSET_PATTERN = Pattern.compile("charset=\"?([\\w-]+)", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Заголовки запросов, например cookies и User-Agent сессии браузера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Map<String, String> headers;
+
+    /**
+     * Конструктор класса {@link ListingCrawler}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param headers заголовки запросов
+     */
+    public ListingCrawler(Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    /**
+     * Загрузка и разбор страниц.
+     * <p>
+     * Метод возвращает управление после отправки последнего запроса, результаты страниц
+     * доступны по мере разбора ответов.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param pages ссылки на страницы
+     * @return товары страниц в порядке переданных ссылок
+     */
+    public List<CompletableFuture<List<Product>>> fetch(List<URI> pages) {
+        ExecutorService parser = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "listing-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(Properties.appProperties.getHttpTimeoutMillis()))
+                .build();
+        Semaphore inFlight = new Semaphore(Math.max(1, Properties.appProperties.getHttpMaxInFlight()));
+
+        List<CompletableFuture<List<Product>>> results = new ArrayList<>();
+        for (URI page : pages) {
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<List<Product>> result = client.sendAsync(request(page), HttpResponse.BodyHandlers.ofInputStream())
+                    .thenApplyAsync(ListingCrawler::parse, parser);
+            result.whenComplete((products, error) -> inFlight.release());
+            results.add(result);
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> parser.shutdown());
+        return results;
+    }
+
+    /**
+     * Создание запроса страницы.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param page ссылка на страницу
+     * @return запрос
+     */
+    private HttpRequest request(URI page) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(page)
+                .timeout(Duration.ofMillis(Properties.appProperties.getHttpTimeoutMillis()))
+                .header("Accept", "text/html");
+        headers.forEach(builder::header);
+        return builder.GET().build();
+    }
+
+    /**
+     * Разбор ответа со страницей результатов поиска.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param response ответ сервера
+     * @return товары страницы
+     * @throws IllegalStateException сервер вернул ошибку
+     * @throws UncheckedIOException ошибка чтения ответа
+     */
+    private static List<Product> parse(HttpResponse<InputStream> response) {
+        try (Reader reader = new InputStreamReader(response.body(), charset(response))) {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(String.format("Страница %s вернула код %d", response.uri(), response.statusCode()));
+            }
+            return ListingHtmlParser.parse(response.uri(), reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Получение кодировки ответа из заголовка Content-Type.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param response ответ сервера
+     * @return кодировка ответа, UTF-8 если не указана или не поддерживается
+     */
+    private static Charset charset(HttpResponse<?> response) {
+        Matcher matcher = CHARSET_PATTERN.matcher(response.headers().firstValue("Content-Type").orElse(""));
+        try {
+            return matcher.find() ? Charset.forName(matcher.group(1)) : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+}
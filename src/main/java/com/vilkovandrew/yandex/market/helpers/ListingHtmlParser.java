@@ -0,0 +1,584 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Потоковый разбор HTML страницы результатов поиска без построения дерева документа.
+ * <p>
+ * Разбор повторяет локаторы страницы: товаром считается ссылка {@literal a[@href]}, вложенная непосредственно
+ * в {@literal h3[@data-zone-name='title']} внутри {@literal article}, ценой - текст первого элемента
+ * {@literal span} без атрибутов внутри {@literal [@data-zone-name='price']} той же карточки.
+ * Товары передаются обработчику по мере закрытия карточек, не дожидаясь конца документа.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class ListingHtmlParser {
+    /**
+     * Элементы без закрывающего тега
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Set<String> VOID_ELEMENTS = Set.of("area", "base", "br", "col", "embed", "hr", "img",
+            "input", "link", "meta", "param", "source", "track", "wbr");
+
+    /**
+     * Элементы, содержимое которых не разбирается как разметка
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Set<String> RAW_TEXT_ELEMENTS = Set.of("script", "style", "textarea", "title");
+
+    /**
+     * Именованные символы, встречающиеся в заголовках и ценах
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<String, String> ENTITIES = Map.of(
+            "amp", "&", "lt", "<", "gt", ">", "quot", "\"", "apos", "'",
+            "nbsp", " ", "thinsp", " ", "laquo", "«", "raquo", "»", "mdash", "—");
+
+    /**
+     * Ссылка на страницу, относительно которой вычисляются ссылки на товары
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final URI baseUri;
+
+    /**
+     * Обработчик найденных товаров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Consumer<Product> consumer;
+
+    /**
+     * Имена открытых элементов
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Deque<String> stack = new ArrayDeque<>();
+
+    /**
+     * Открытые карточки товаров, последняя - ближайшая к текущему элементу
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Deque<Card> cards = new ArrayDeque<>();
+
+    /**
+     * Входной поток документа
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private PushbackReader in;
+
+    /**
+     * Конструктор класса {@link ListingHtmlParser}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param baseUri  ссылка на разбираемую страницу
+     * @param consumer обработчик найденных товаров
+     */
+    public ListingHtmlParser(URI baseUri, Consumer<Product> consumer) {
+        this.baseUri = baseUri;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Разбор документа с получением списка товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param baseUri ссылка на разбираемую страницу
+     * @param reader  документ
+     * @return товары в порядке следования на странице
+     * @throws IOException ошибка чтения документа
+     */
+    public static List<Product> parse(URI baseUri, Reader reader) throws IOException {
+        List<Product> products = new ArrayList<>();
+        new ListingHtmlParser(baseUri, products::add).read(reader);
+        return products;
+    }
+
+    /**
+     * Чтение документа до конца с передачей товаров обработчику.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param reader документ
+     * @throws IOException ошибка чтения документа
+     */
+    public void read(Reader reader) throws IOException {
+        in = new PushbackReader(reader, 2);
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '<') {
+                markup();
+            } else {
+                text((char) c);
+            }
+        }
+    }
+
+    /**
+     * Разбор разметки после символа '&lt;': комментария, объявления, открывающего или закрывающего тега.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @throws IOException ошибка чтения документа
+     */
+    private void markup() throws IOException {
+        int c = in.read();
+        if (c == '!') {
+            int first = in.read();
+            int second = in.read();
+            if (first == '-' && second == '-') {
+                skipPast("-->");
+            } else {
+                skipPast(">");
+            }
+        } else if (c == '?') {
+            skipPast(">");
+        } else if (c == '/') {
+            String name = readName();
+            skipPast(">");
+            if (!name.isEmpty()) {
+                endTag(name);
+            }
+        } else if (Character.isLetter(c)) {
+            in.unread(c);
+            startTag();
+        } else {
+            text('<');
+            if (c != -1) {
+                in.unread(c);
+            }
+        }
+    }
+
+    /**
+     * Разбор открывающего тега с атрибутами.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @throws IOException ошибка чтения документа
+     */
+    private void startTag() throws IOException {
+        String name = readName();
+        Map<String, String> attributes = new HashMap<>();
+        boolean selfClosing = false;
+        int c;
+        while ((c = in.read()) != -1 && c != '>') {
+            if (c == '/') {
+                selfClosing = true;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            selfClosing = false;
+            in.unread(c);
+            String attribute = readName();
+            if (attribute.isEmpty()) {
+                in.read();
+                continue;
+            }
+            String value = "";
+            c = skipWhitespace();
+            if (c == '=') {
+                value = decode(readValue());
+            } else if (c != -1) {
+                in.unread(c);
+            }
+            attributes.putIfAbsent(attribute, value);
+        }
+
+        stack.push(name);
+        open(name, attributes);
+        if (selfClosing || VOID_ELEMENTS.contains(name)) {
+            endTag(name);
+        } else if (RAW_TEXT_ELEMENTS.contains(name)) {
+            skipPast("</" + name);
+            skipPast(">");
+            endTag(name);
+        }
+    }
+
+    /**
+     * Учёт открытого элемента в состоянии карточки товара.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param name       имя элемента
+     * @param attributes атрибуты элемента
+     */
+    private void open(String name, Map<String, String> attributes) {
+        int depth = stack.size();
+        if (name.equals("article")) {
+            cards.push(new Card(depth));
+            return;
+        }
+        Card card = cards.peek();
+        if (card == null) return;
+        String zone = attributes.get("data-zone-name");
+        if (name.equals("h3") && "title".equals(zone)) {
+            card.titleDepth = depth;
+        } else if (name.equals("a") && card.titleDepth == depth - 1 && attributes.containsKey("href") && card.linkDepth < 0) {
+            card.linkDepth = depth;
+            card.link = attributes.get("href");
+            card.header.setLength(0);
+        } else if ("price".equals(zone) && card.priceZoneDepth < 0) {
+            card.priceZoneDepth = depth;
+        } else if (name.equals("span") && attributes.isEmpty() && card.priceZoneDepth >= 0 && card.priceSpanDepth < 0 && !card.priceFound) {
+            card.priceSpanDepth = depth;
+        }
+    }
+
+    /**
+     * Закрытие элементов до ближайшего открытого элемента с заданным именем.
+     * <p>
+     * Закрывающий тег без соответствующего открытого элемента пропускается.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param name имя элемента
+     */
+    private void endTag(String name) {
+        if (!stack.contains(name)) return;
+        String closed;
+        do {
+            int depth = stack.size();
+            closed = stack.pop();
+            close(depth);
+        } while (!closed.equals(name));
+    }
+
+    /**
+     * Учёт закрытого элемента в состоянии карточки товара.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param depth глубина закрытого элемента
+     */
+    private void close(int depth) {
+        Card card = cards.peek();
+        if (card == null) return;
+        if (depth == card.linkDepth) {
+            card.links.add(new String[]{normalize(card.header), card.link});
+            card.linkDepth = -1;
+        } else if (depth == card.titleDepth) {
+            card.titleDepth = -1;
+        } else if (depth == card.priceSpanDepth) {
+            card.priceSpanDepth = -1;
+            card.priceFound = true;
+        } else if (depth == card.priceZoneDepth) {
+            card.priceZoneDepth = -1;
+        } else if (depth == card.depth) {
+            cards.pop();
+            String price = card.priceFound ? normalize(card.price) : null;
+            for (String[] link : card.links) {
+                Map<String, Object> values = new HashMap<>();
+                values.put("header", link[0]);
+                values.put("link", resolve(link[1]));
+                values.put("price", price);
+                consumer.accept(new Product(values));
+            }
+        }
+    }
+
+    /**
+     * Учёт символа текста в заголовке или цене открытой карточки товара.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param c символ
+     */
+    private void text(char c) {
+        Card card = cards.peek();
+        if (card == null) return;
+        if (card.linkDepth >= 0) {
+            card.header.append(c);
+        }
+        if (card.priceSpanDepth >= 0) {
+            card.price.append(c);
+        }
+    }
+
+    /**
+     * Чтение имени тега или атрибута в нижнем регистре.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return имя, пустая строка если имя отсутствует
+     * @throws IOException ошибка чтения документа
+     */
+    private String readName() throws IOException {
+        StringBuilder name = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && !Character.isWhitespace(c) && c != '>' && c != '/' && c != '=') {
+            name.append((char) c);
+        }
+        if (c != -1) {
+            in.unread(c);
+        }
+        return name.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Чтение значения атрибута в кавычках или без них.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return значение атрибута без декодирования символов
+     * @throws IOException ошибка чтения документа
+     */
+    private String readValue() throws IOException {
+        StringBuilder value = new StringBuilder();
+        int c = skipWhitespace();
+        if (c == '"' || c == '\'') {
+            int quote = c;
+            while ((c = in.read()) != -1 && c != quote) {
+                value.append((char) c);
+            }
+            return value.toString();
+        }
+        while (c != -1 && !Character.isWhitespace(c) && c != '>') {
+            value.append((char) c);
+            c = in.read();
+        }
+        if (c != -1) {
+            in.unread(c);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Пропуск пробельных символов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return первый непробельный символ или -1 в конце документа
+     * @throws IOException ошибка чтения документа
+     */
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = in.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        return c;
+    }
+
+    /**
+     * Пропуск документа до конца заданной последовательности символов без учёта регистра.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param terminator последовательность символов
+     * @throws IOException ошибка чтения документа
+     */
+    private void skipPast(String terminator) throws IOException {
+        int matched = 0;
+        int c;
+        while (matched < terminator.length() && (c = in.read()) != -1) {
+            if (Character.toLowerCase(c) == terminator.charAt(matched)) {
+                matched++;
+            } else {
+                matched = Character.toLowerCase(c) == terminator.charAt(0) ? 1 : 0;
+            }
+        }
+    }
+
+    /**
+     * Получение абсолютной ссылки на товар.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param href значение атрибута href
+     * @return абсолютная ссылка, или значение атрибута если ссылка некорректна
+     */
+    private String resolve(String href) {
+        try {
+            return baseUri.resolve(href).toString();
+        } catch (IllegalArgumentException e) {
+            return href;
+        }
+    }
+
+    /**
+     * Декодирование символов и схлопывание пробелов, как в видимом тексте элемента.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param text исходный текст
+     * @return нормализованный текст
+     */
+    private static String normalize(CharSequence text) {
+        return decode(text.toString()).replaceAll("[\\s\\u00a0\\u2009\\u202f]+", " ").trim();
+    }
+
+    /**
+     * Декодирование именованных и числовых ссылок на символы.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param text исходный текст
+     * @return текст с декодированными символами, нераспознанные ссылки остаются без изменений
+     */
+    private static String decode(String text) {
+        int amp = text.indexOf('&');
+        if (amp < 0) return text;
+        StringBuilder result = new StringBuilder(text.length());
+        int from = 0;
+        while (amp >= 0) {
+            int semicolon = text.indexOf(';', amp);
+            result.append(text, from, amp);
+            String replacement = semicolon < 0 || semicolon - amp > 10 ? null : entity(text.substring(amp + 1, semicolon));
+            if (replacement == null) {
+                result.append('&');
+                from = amp + 1;
+            } else {
+                result.append(replacement);
+                from = semicolon + 1;
+            }
+            amp = text.indexOf('&', from);
+        }
+        return result.append(text, from, text.length()).toString();
+    }
+
+    /**
+     * Получение символа по ссылке на символ без '&amp;' и ';'.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param reference имя или числовой код символа
+     * @return символ или null если ссылка не распознана
+     */
+    private static String entity(String reference) {
+        if (reference.startsWith("#")) {
+            try {
+                int code = reference.startsWith("#x") || reference.startsWith("#X")
+                        ? Integer.parseInt(reference.substring(2), 16)
+                        : Integer.parseInt(reference.substring(1));
+                return new String(Character.toChars(code));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return ENTITIES.get(reference);
+    }
+
+    /**
+     * Состояние разбора карточки товара.
+     *
+     * @author Вилков Андрей
+     */
+    private static class Card {
+        /**
+         * Глубина элемента article карточки
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final int depth;
+
+        /**
+         * Найденные заголовки и ссылки на товары
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final List<String[]> links = new ArrayList<>();
+
+        /**
+         * Текст текущей ссылки в заголовке
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final StringBuilder header = new StringBuilder();
+
+        /**
+         * Текст цены
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final StringBuilder price = new StringBuilder();
+
+        /**
+         * Значение атрибута href текущей ссылки в заголовке
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private String link;
+
+        /**
+         * Глубина открытых элементов заголовка, ссылки, блока цены и цены, -1 если элемент не открыт
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private int titleDepth = -1, linkDepth = -1, priceZoneDepth = -1, priceSpanDepth = -1;
+
+        /**
+         * Признак того, что цена карточки уже прочитана
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private boolean priceFound;
+
+        /**
+         * Конструктор класса {@link Card}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param depth глубина элемента article карточки
+         */
+        private Card(int depth) {
+            this.depth = depth;
+        }
+    }
+}
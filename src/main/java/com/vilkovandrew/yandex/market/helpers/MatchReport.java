@@ -0,0 +1,121 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс представляющий результат проверки товара скомпилированным выражением фильтров.
+ *
+ * @author Вилков Андрей
+ * @see CompiledFilter
+ */
+public class MatchReport {
+    /**
+     * Результат проверки товара, соответствующего выражению
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    static final MatchReport MATCHED = new MatchReport(List.of(), List.of());
+
+    /**
+     * Части выражения, которым товар не соответствует
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<FilterExpression> mismatches;
+
+    /**
+     * Скомпилированные части выражения с отрицанием или ИЛИ, которым товар не соответствует
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<CompiledFilter> conditions;
+
+    /**
+     * Конструктор класса {@link MatchReport}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param mismatches части выражения, которым товар не соответствует
+     * @param conditions скомпилированные части выражения с отрицанием или ИЛИ из mismatches
+     */
+    MatchReport(List<FilterExpression> mismatches, List<CompiledFilter> conditions) {
+        this.mismatches = List.copyOf(mismatches);
+        this.conditions = List.copyOf(conditions);
+    }
+
+    /**
+     * Проверка что товар соответствует выражению.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return true если товар соответствует выражению, в противном случае false
+     */
+    public boolean isMatched() {
+        return mismatches.isEmpty();
+    }
+
+    /**
+     * Получение частей выражения, которым товар не соответствует.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return список частей выражения
+     */
+    public List<FilterExpression> getMismatches() {
+        return mismatches;
+    }
+
+    /**
+     * Получение фильтров, которым товар не соответствует.
+     * <p>
+     * Части выражения с отрицанием или ИЛИ в список не входят.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return список фильтров
+     */
+    public List<Filter> getMismatchedFilters() {
+        List<Filter> filters = new ArrayList<>();
+        for (FilterExpression mismatch : mismatches) {
+            if (mismatch instanceof FilterExpression.Leaf) filters.add(((FilterExpression.Leaf) mismatch).filter);
+        }
+        return filters;
+    }
+
+    /**
+     * Получение скомпилированных частей выражения с отрицанием или ИЛИ, которым товар не соответствует.
+     * <p>
+     * Фильтры, которым товар не соответствует, в список не входят, см. {@link #getMismatchedFilters()}.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return список скомпилированных частей выражения
+     */
+    public List<CompiledFilter> getMismatchedConditions() {
+        return conditions;
+    }
+
+    /**
+     * Получение строкового представления результата проверки.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return строковое представление результата проверки.
+     */
+    @Override
+    public String toString() {
+        return isMatched() ? "MatchReport{matched}" : "MatchReport{mismatches=" + mismatches + '}';
+    }
+}
@@ -3,6 +3,7 @@ package com.vilkovandrew.yandex.market.helpers;
 import com.codeborne.selenide.SelenideElement;
 import org.openqa.selenium.By;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,13 +38,37 @@ public class Product {
      */
     private int price;
 
+    /**
+     * Значение цены товара, для которого цена не указана или не распознана
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static final int NO_PRICE = Integer.MIN_VALUE;
+
+    /**
+     * XPath цены товара относительно ссылки в заголовке товара.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static final String XPATH_PRICE_ITEM = "./ancestor::article//*[@data-zone-name='price']//span[count(@*)=0]";
+
     /**
      * Локатор для цены товара.
      * <p>
      * Автор: Вилков Андрей
      * </p>
      */
-    private static final By LOCATOR_PRICE_ITEM = By.xpath("./ancestor::article//*[@data-zone-name='price']//span[count(@*)=0]");
+    private static final By LOCATOR_PRICE_ITEM = By.xpath(XPATH_PRICE_ITEM);
+
+    /**
+     * Паттерн для проверки строки с ценой товара
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Pattern PRICE_PATTERN = Pattern.compile("\\d+");
 
     /**
      * Паттерн для отделение ссылки на товар от параметров
@@ -81,13 +106,45 @@ public class Product {
         e.shouldBe(visible);
         this.header = e.getText();
         this.link = e.getAttribute("href");
-        this.price = Integer.MIN_VALUE;
+        this.price = NO_PRICE;
         if (e.$$(LOCATOR_PRICE_ITEM).size() > 0) {
-            String priceString = e.$(LOCATOR_PRICE_ITEM).getText().replaceAll("\\s", "");
-            if (Pattern.matches("\\d+", priceString)) this.price = Integer.parseInt(priceString);
+            this.price = parsePrice(e.$(LOCATOR_PRICE_ITEM).getText());
         }
     }
 
+    /**
+     * Конструктор класса {@link Product}.
+     * <p>
+     * Используется для товаров, данные которых получены со страницы одним вызовом скрипта,
+     * без обращений к драйверу для каждого элемента.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param values значения полей товара с ключами {@literal header}, {@literal link} и {@literal price}
+     */
+    public Product(Map<String, ?> values) {
+        this.header = Objects.toString(values.get("header"), "");
+        this.link = Objects.toString(values.get("link"), "");
+        Object priceValue = values.get("price");
+        this.price = priceValue == null ? NO_PRICE : parsePrice(priceValue.toString());
+    }
+
+    /**
+     * Получение цены из текстового представления.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param priceString текст цены со страницы
+     * @return цена товара или {@link #NO_PRICE} если цена не распознана
+     */
+    private static int parsePrice(String priceString) {
+        String digits = priceString.replaceAll("\\s", "");
+        return PRICE_PATTERN.matcher(digits).matches() ? Integer.parseInt(digits) : NO_PRICE;
+    }
+
     /**
      * Получение заголовка товара.
      * <p>
@@ -135,7 +192,7 @@ public class Product {
      * Автор: Вилков Андрей
      * </p>
      *
-     * @return цена товара
+     * @return цена товара или {@link #NO_PRICE} если цена не указана
      */
     public int getPrice() {
         return price;
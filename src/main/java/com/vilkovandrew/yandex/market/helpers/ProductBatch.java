@@ -0,0 +1,263 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Класс представляющий набор товаров, хранящийся по столбцам.
+ * <p>
+ * Цены хранятся в массиве {@code int[]}, прочие числовые значения вычисляются в столбцы
+ * один раз на набор. Проверки диапазона, минимум, максимум и гистограмма выполняются
+ * циклами по массивам без создания объектов. Набор может накапливать товары со страницы
+ * или со всех страниц прогона.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class ProductBatch {
+    /**
+     * Начальная ёмкость набора
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Функция получения цены товара
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public static final ToIntFunction<Product> PRICE = Product::getPrice;
+
+    /**
+     * Товары набора
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private Product[] products;
+    /**
+     * Цены товаров набора
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private int[] prices;
+    /**
+     * Количество товаров в наборе
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private int size;
+    /**
+     * Вычисленные столбцы по функциям получения значения
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Map<ToIntFunction<Product>, int[]> columns = new IdentityHashMap<>();
+
+    /**
+     * Конструктор класса {@link ProductBatch}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    public ProductBatch() {
+        this.products = new Product[INITIAL_CAPACITY];
+        this.prices = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Создание набора из списка товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param products список товаров
+     * @return набор товаров
+     */
+    public static ProductBatch of(List<Product> products) {
+        ProductBatch batch = new ProductBatch();
+        batch.addAll(products);
+        return batch;
+    }
+
+    /**
+     * Добавление товаров в набор.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param added список товаров
+     * @return {@link ProductBatch} текущий набор
+     */
+    public ProductBatch addAll(List<Product> added) {
+        ensureCapacity(size + added.size());
+        for (Product product : added) {
+            products[size] = product;
+            prices[size] = product.getPrice();
+            size++;
+        }
+        columns.clear();
+        return this;
+    }
+
+    /**
+     * Получение количества товаров в наборе.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return количество товаров
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Получение товара по индексу.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param index индекс товара
+     * @return товар
+     */
+    public Product get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException(index);
+        return products[index];
+    }
+
+    /**
+     * Получение столбца значений.
+     * <p>
+     * Для цены возвращается хранимый столбец, для остальных функций столбец вычисляется
+     * при первом обращении. Длина массива может превышать {@link #size()}.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param field функция получения значения из товара
+     * @return столбец значений
+     */
+    public int[] column(ToIntFunction<Product> field) {
+        if (field == PRICE) return prices;
+        return columns.computeIfAbsent(field, f -> {
+            int[] values = new int[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = f.applyAsInt(products[i]);
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Получение минимального значения без учёта отсутствующих.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param field функция получения значения из товара
+     * @return минимальное значение или {@link Product#NO_PRICE} если значений нет
+     */
+    public int min(ToIntFunction<Product> field) {
+        int[] values = column(field);
+        int min = Integer.MAX_VALUE;
+        boolean found = false;
+        for (int i = 0; i < size; i++) {
+            int value = values[i];
+            if (value != Product.NO_PRICE && value <= min) {
+                min = value;
+                found = true;
+            }
+        }
+        return found ? min : Product.NO_PRICE;
+    }
+
+    /**
+     * Получение максимального значения без учёта отсутствующих.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param field функция получения значения из товара
+     * @return максимальное значение или {@link Product#NO_PRICE} если значений нет
+     */
+    public int max(ToIntFunction<Product> field) {
+        int[] values = column(field);
+        int max = Product.NO_PRICE;
+        for (int i = 0; i < size; i++) {
+            if (values[i] > max) max = values[i];
+        }
+        return max;
+    }
+
+    /**
+     * Подсчёт товаров без значения.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param field функция получения значения из товара
+     * @return количество товаров без значения
+     */
+    public int countAbsent(ToIntFunction<Product> field) {
+        int[] values = column(field);
+        int absent = 0;
+        for (int i = 0; i < size; i++) {
+            if (values[i] == Product.NO_PRICE) absent++;
+        }
+        return absent;
+    }
+
+    /**
+     * Построение гистограммы значений в переданный массив.
+     * <p>
+     * Интервал {@code i} содержит значения от {@code bounds[i - 1]} включительно до {@code bounds[i]}
+     * не включительно, интервал 0 - значения меньше {@code bounds[0]}, последний интервал -
+     * значения не меньше последней границы. Отсутствующие значения не учитываются.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param field  функция получения значения из товара
+     * @param bounds возрастающие границы интервалов
+     * @param counts массив длины {@code bounds.length + 1}, к элементам которого прибавляются количества
+     */
+    public void histogram(ToIntFunction<Product> field, int[] bounds, long[] counts) {
+        if (counts.length != bounds.length + 1) {
+            throw new IllegalArgumentException("Длина массива количеств должна быть на 1 больше количества границ");
+        }
+        int[] values = column(field);
+        for (int i = 0; i < size; i++) {
+            int value = values[i];
+            if (value == Product.NO_PRICE) continue;
+            int bucket = Arrays.binarySearch(bounds, value);
+            counts[bucket >= 0 ? bucket + 1 : -bucket - 1]++;
+        }
+    }
+
+    /**
+     * Увеличение ёмкости набора.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param capacity требуемая ёмкость
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= products.length) return;
+        int newCapacity = Math.max(capacity, products.length * 2);
+        products = Arrays.copyOf(products, newCapacity);
+        prices = Arrays.copyOf(prices, newCapacity);
+    }
+}
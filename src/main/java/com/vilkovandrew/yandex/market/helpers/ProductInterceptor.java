@@ -0,0 +1,316 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import com.vilkovandrew.helpers.Cdp;
+import com.vilkovandrew.helpers.Properties;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static com.codeborne.selenide.Selenide.webdriver;
+
+/**
+ * Класс для получения товаров из ответов сервера с результатами поиска через события сети Chrome DevTools Protocol.
+ * <p>
+ * Ответы, ссылка которых соответствует настройке intercept.url_pattern, разбираются как JSON по мере получения.
+ * Товары берутся только из списка по пути intercept.results_path, чтобы рекомендации и подборки из того же ответа
+ * не проверялись как результаты поиска. Товаром считается элемент списка, содержащий заголовок и ссылку
+ * по настройкам intercept.title_key и intercept.link_key, цена берётся по настройке intercept.price_key.
+ * Ключи могут быть составными, например {@literal titles.raw}.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class ProductInterceptor {
+    /**
+     * Перехватчики по драйверам
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<WebDriver, ProductInterceptor> INTERCEPTORS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Шаблон ссылки ответов с результатами поиска
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Pattern urlPattern = Pattern.compile(Properties.appProperties.getInterceptUrlPattern());
+
+    /**
+     * Путь до списка товаров в ответе, {@literal *} - каждый элемент списка или значение объекта
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String[] resultsPath = Properties.appProperties.getInterceptResultsPath().split("\\.");
+
+    /**
+     * Составной ключ заголовка товара
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String[] titleKey = Properties.appProperties.getInterceptTitleKey().split("\\.");
+
+    /**
+     * Составной ключ ссылки на товар
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String[] linkKey = Properties.appProperties.getInterceptLinkKey().split("\\.");
+
+    /**
+     * Составной ключ цены товара
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String[] priceKey = Properties.appProperties.getInterceptPriceKey().split("\\.");
+
+    /**
+     * Порядковые номера ответов с результатами поиска по идентификатору запроса, тело которых ещё не разобрано
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Map<String, Long> responses = new ConcurrentHashMap<>();
+
+    /**
+     * Товары разобранных ответов по порядковому номеру ответа
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final NavigableMap<Long, List<Product>> parsed = new TreeMap<>();
+
+    /**
+     * Порядковый номер последнего полученного ответа с результатами поиска
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private long sequence;
+
+    /**
+     * Получение перехватчика для драйвера текущего потока, при первом обращении включаются события сети.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return перехватчик товаров
+     */
+    public static ProductInterceptor attach() {
+        return INTERCEPTORS.computeIfAbsent(webdriver().object(), driver -> {
+            ProductInterceptor interceptor = new ProductInterceptor();
+            DevTools devTools = Cdp.devTools();
+            Cdp.on("Network.responseReceived", params -> {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> response = (Map<String, Object>) params.get("response");
+                String url = Objects.toString(response.get("url"), "");
+                if (interceptor.urlPattern.matcher(url).find()) {
+                    interceptor.received((String) params.get("requestId"));
+                }
+            });
+            Cdp.on("Network.loadingFailed", params -> interceptor.finished((String) params.get("requestId"), null));
+            Cdp.on("Network.loadingFinished", params -> interceptor.finished((String) params.get("requestId"), devTools));
+            Cdp.send("Network.enable", Map.of());
+            return interceptor;
+        });
+    }
+
+    /**
+     * Получение отметки, после которой ожидаются ответы с результатами поиска.
+     * <p>
+     * Снимается до перехода на страницу, товары которой нужно получить.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return порядковый номер последнего полученного ответа
+     */
+    public synchronized long mark() {
+        return sequence;
+    }
+
+    /**
+     * Получение товаров из ответов, полученных после отметки.
+     * <p>
+     * Ожидается, пока после отметки не будет разобран хотя бы один ответ со списком товаров и не останется
+     * неразобранных ответов, полученных после отметки. Товары ответов, полученных до отметки, отбрасываются.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param mark          отметка {@link #mark()}, снятая до перехода
+     * @param timeoutMillis максимальное время ожидания ответов в мс
+     * @return список товаров без повторов в порядке получения, пустой если ответ со списком товаров не получен
+     */
+    public synchronized List<Product> drain(long mark, long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            while (!isComplete(mark) && deadline - System.nanoTime() > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, deadline - System.nanoTime());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Set<Product> result = new LinkedHashSet<>();
+        parsed.tailMap(mark, false).values().forEach(result::addAll);
+        parsed.clear();
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Проверка что после отметки разобран ответ со списком товаров и нет неразобранных ответов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param mark отметка {@link #mark()}
+     * @return true если товары страницы получены
+     */
+    private boolean isComplete(long mark) {
+        boolean pending = responses.values().stream().anyMatch(number -> number > mark);
+        boolean received = parsed.tailMap(mark, false).values().stream().anyMatch(products -> !products.isEmpty());
+        return received && !pending;
+    }
+
+    /**
+     * Учёт полученного ответа с результатами поиска.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param requestId идентификатор запроса
+     */
+    private synchronized void received(String requestId) {
+        responses.put(requestId, ++sequence);
+    }
+
+    /**
+     * Обработка завершения загрузки ответа.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param requestId идентификатор запроса
+     * @param devTools  сессия DevTools, null если загрузка не удалась
+     */
+    private void finished(String requestId, DevTools devTools) {
+        Long number = responses.get(requestId);
+        if (number == null) return;
+        List<Product> products = new ArrayList<>();
+        if (devTools != null) {
+            try {
+                Map<String, Object> result = Cdp.send(devTools, "Network.getResponseBody", Map.of("requestId", requestId));
+                String body = Objects.toString(result.get("body"), "");
+                if (Boolean.TRUE.equals(result.get("base64Encoded"))) {
+                    body = new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8);
+                }
+                collect(new Json().toType(body, Object.class), 0, products);
+            } catch (WebDriverException | IllegalArgumentException e) {
+                // ответ не является JSON с результатами поиска
+            }
+        }
+        synchronized (this) {
+            parsed.put(number, products);
+            responses.remove(requestId);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Получение товаров из списка по пути intercept.results_path.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param node     узел JSON
+     * @param depth    количество пройденных частей пути
+     * @param products список, в который добавляются найденные товары
+     */
+    private void collect(Object node, int depth, List<Product> products) {
+        if (depth == resultsPath.length) {
+            if (node instanceof List) {
+                ((List<?>) node).forEach(item -> product(item).ifPresent(products::add));
+            }
+            return;
+        }
+        String key = resultsPath[depth];
+        if ("*".equals(key)) {
+            if (node instanceof List) {
+                ((List<?>) node).forEach(child -> collect(child, depth + 1, products));
+            } else if (node instanceof Map) {
+                ((Map<?, ?>) node).values().forEach(child -> collect(child, depth + 1, products));
+            }
+        } else if (node instanceof Map) {
+            collect(((Map<?, ?>) node).get(key), depth + 1, products);
+        }
+    }
+
+    /**
+     * Получение товара из элемента списка результатов поиска.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param item элемент списка
+     * @return товар, пусто если у элемента нет заголовка или ссылки
+     */
+    private Optional<Product> product(Object item) {
+        if (!(item instanceof Map)) return Optional.empty();
+        Map<?, ?> object = (Map<?, ?>) item;
+        Object title = value(object, titleKey);
+        Object link = value(object, linkKey);
+        if (!(title instanceof String) || !(link instanceof String)) return Optional.empty();
+        Map<String, Object> values = new HashMap<>();
+        values.put("header", title);
+        values.put("link", URI.create(Properties.appProperties.getYaMarketUrl()).resolve((String) link).toString());
+        Object price = value(object, priceKey);
+        values.put("price", price instanceof Number ? ((Number) price).intValue() : price);
+        return Optional.of(new Product(values));
+    }
+
+    /**
+     * Получение значения по составному ключу.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param object объект JSON
+     * @param path   части ключа
+     * @return значение, null если ключ отсутствует или значение является объектом
+     */
+    private static Object value(Map<?, ?> object, String[] path) {
+        Object current = object;
+        for (String key : path) {
+            if (!(current instanceof Map)) return null;
+            current = ((Map<?, ?>) current).get(key);
+        }
+        return current instanceof Map || current instanceof List ? null : current;
+    }
+}
@@ -0,0 +1,142 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Класс представляющий таблицу результатов проверки товаров для вложения в отчёт.
+ *
+ * @author Вилков Андрей
+ */
+public class ProductVerdictTable {
+    /**
+     * Заголовок таблицы в формате CSV
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String CSV_HEADER = "page;index;verdict;price;header;link;mismatches\n";
+
+    /**
+     * Строки таблицы в формате CSV
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final StringBuilder rows = new StringBuilder();
+
+    /**
+     * Товары, не соответствующие фильтрам
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<Product> failures = new ArrayList<>();
+
+    /**
+     * Результаты проверки товаров, не соответствующих фильтрам, в порядке {@link #failures}
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<MatchReport> failureReports = new ArrayList<>();
+
+    /**
+     * Количество проверенных товаров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private int size;
+
+    /**
+     * Добавление результата проверки товара.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param page    номер страницы
+     * @param index   номер товара на странице
+     * @param product проверенный товар
+     * @param report  {@link MatchReport} результат проверки
+     */
+    public void add(int page, int index, Product product, MatchReport report) {
+        size++;
+        if (!report.isMatched()) {
+            failures.add(product);
+            failureReports.add(report);
+        }
+        rows.append(page).append(';')
+                .append(index).append(';')
+                .append(report.isMatched() ? "OK" : "FAIL").append(';')
+                .append(product.getPrice() == Product.NO_PRICE ? "" : Integer.toString(product.getPrice())).append(';')
+                .append(escape(product.getHeader())).append(';')
+                .append(escape(product.getLink())).append(';')
+                .append(report.isMatched() ? "" : escape(report.getMismatches().toString()))
+                .append('\n');
+    }
+
+    /**
+     * Получение количества проверенных товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return количество товаров
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Получение товаров, не соответствующих фильтрам.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return список товаров
+     */
+    public List<Product> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Обработка товаров, не соответствующих фильтрам, вместе с результатами их проверки.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param consumer обработчик товара и результата его проверки
+     */
+    public void forEachFailure(BiConsumer<Product, MatchReport> consumer) {
+        for (int i = 0; i < failures.size(); i++) {
+            consumer.accept(failures.get(i), failureReports.get(i));
+        }
+    }
+
+    /**
+     * Получение таблицы в формате CSV с разделителем {@literal ;}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return таблица в формате CSV
+     */
+    public String toCsv() {
+        return CSV_HEADER + rows;
+    }
+
+    /**
+     * Экранирование значения для CSV.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param value значение
+     * @return значение в кавычках, кавычки внутри значения удваиваются
+     */
+    private static String escape(String value) {
+        return '"' + value.replace("\"", "\"\"").replace('\n', ' ') + '"';
+    }
+}
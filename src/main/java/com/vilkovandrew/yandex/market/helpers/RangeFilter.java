@@ -1,6 +1,6 @@
 package com.vilkovandrew.yandex.market.helpers;
 
-import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 /**
  * Класс представляющий фильтр с диапазоном значений.
@@ -15,7 +15,7 @@ public class RangeFilter extends Filter {
      * Автор: Вилков Андрей
      * </p>
      */
-    private final Function<Product, Integer> checkingField;
+    private final ToIntFunction<Product> checkingField;
 
     /**
      * Минимальное значение диапазона
@@ -31,10 +31,20 @@ public class RangeFilter extends Filter {
      * </p>
      */
     private final int maxValue;
+    /**
+     * Проверка товаров без значения
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final AbsentValuePolicy absentValuePolicy;
 
     /**
      * Конструктор класса {@link RangeFilter}.
      * <p>
+     * Товары без значения фильтру не соответствуют.
+     * </p>
+     * <p>
      * Автор: Вилков Андрей
      * </p>
      *
@@ -44,11 +54,30 @@ public class RangeFilter extends Filter {
      * @param minValue      минимальное значение диапазона
      * @param maxValue      максимальное значение диапазона
      */
-    public RangeFilter(String filterName, Function<Product, Integer> checkingField, int minValue, int maxValue) {
+    public RangeFilter(String filterName, ToIntFunction<Product> checkingField, int minValue, int maxValue) {
+        this(filterName, checkingField, minValue, maxValue, AbsentValuePolicy.MISMATCH);
+    }
+
+    /**
+     * Конструктор класса {@link RangeFilter}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filterName        имя фильтра
+     * @param checkingField     функция получения значения из экземпляра класса {@link Product}
+     *                          по которому будет осуществляться проверка соответствия товара фильтру
+     * @param minValue          минимальное значение диапазона
+     * @param maxValue          максимальное значение диапазона
+     * @param absentValuePolicy {@link AbsentValuePolicy} проверка товаров без значения
+     */
+    public RangeFilter(String filterName, ToIntFunction<Product> checkingField, int minValue, int maxValue,
+                       AbsentValuePolicy absentValuePolicy) {
         super(FilterType.RANGE, filterName);
         this.minValue = minValue;
         this.maxValue = maxValue;
         this.checkingField = checkingField;
+        this.absentValuePolicy = absentValuePolicy;
     }
 
     /**
@@ -75,6 +104,18 @@ public class RangeFilter extends Filter {
         return maxValue;
     }
 
+    /**
+     * Получение функции получения проверяемого значения
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return функция получения значения из экземпляра класса {@link Product}
+     */
+    public ToIntFunction<Product> getCheckingField() {
+        return checkingField;
+    }
+
     /**
      * Проверка соответствия товара фильтру.
      * <p>
@@ -86,8 +127,63 @@ public class RangeFilter extends Filter {
      */
     @Override
     public boolean isMatches(Product product) {
-        Integer currentValue = checkingField.apply(product);
-        return currentValue >= minValue && currentValue <= maxValue;
+        return isMatches(checkingField.applyAsInt(product));
+    }
+
+    /**
+     * Проверка соответствия значения фильтру.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param value проверяемое значение
+     * @return true если значение соответствует фильтру, в противном случае false
+     */
+    public boolean isMatches(int value) {
+        if (value == Product.NO_PRICE) return absentValuePolicy == AbsentValuePolicy.MATCH;
+        return value >= minValue && value <= maxValue;
+    }
+
+    /**
+     * Поиск следующего товара набора, не соответствующего фильтру.
+     * <p>
+     * Значения проверяются по столбцу набора без создания объектов.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param batch набор товаров
+     * @param from  индекс, с которого начинается поиск
+     * @return индекс товара или -1 если все товары, начиная с {@code from}, соответствуют фильтру
+     */
+    public int nextMismatch(ProductBatch batch, int from) {
+        int[] values = batch.column(checkingField);
+        for (int i = from, size = batch.size(); i < size; i++) {
+            if (!isMatches(values[i])) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Подсчёт товаров набора, не соответствующих фильтру.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param batch набор товаров
+     * @return количество несоответствующих товаров
+     */
+    public int countMismatches(ProductBatch batch) {
+        int[] values = batch.column(checkingField);
+        boolean absentMatches = absentValuePolicy == AbsentValuePolicy.MATCH;
+        int mismatches = 0;
+        for (int i = 0, size = batch.size(); i < size; i++) {
+            int value = values[i];
+            boolean matches = value == Product.NO_PRICE ? absentMatches : value >= minValue & value <= maxValue;
+            mismatches += matches ? 0 : 1;
+        }
+        return mismatches;
     }
 
     /**
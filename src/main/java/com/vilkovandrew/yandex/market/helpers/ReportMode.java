@@ -0,0 +1,24 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+/**
+ * Класс предоставляющий способы отражения проверки товаров в отчёте
+ *
+ * @author Вилков Андрей
+ */
+public enum ReportMode {
+    /**
+     * Отдельный шаг отчёта для каждого товара
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    STEPS,
+    /**
+     * Один шаг на страницу с таблицей результатов во вложении,
+     * отдельные шаги только для несоответствующих товаров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    AGGREGATED;
+}
@@ -0,0 +1,275 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Класс представляющий план выборочной проверки товаров.
+ * <p>
+ * Размер выборки n подбирается так, чтобы при отсутствии несоответствий в выборке с заданной уверенностью C
+ * утверждать, что доля несоответствующих товаров меньше p: n = ln(1 - C) / ln(1 - p).
+ * Страницы делятся на равные диапазоны, в каждом диапазоне случайно выбирается одна страница,
+ * на выбранной странице случайно выбираются товары. Случайный выбор определяется начальным значением,
+ * поэтому план воспроизводим.
+ * </p>
+ * <p>
+ * Формула считает выбранные товары независимыми, хотя они выбираются группами по страницам: товары одной
+ * страницы похожи друг на друга (соседние места выдачи, одни продавцы), поэтому несоответствия
+ * скапливаются на отдельных страницах. Чтобы уменьшить этот эффект, на странице выбирается не более половины
+ * товаров и страницы берутся из всех диапазонов, но при сильной группировке несоответствий
+ * {@link #achievedConfidence(int)} завышает уверенность. Нижняя граница - расчёт по страницам как единицам
+ * выборки, {@link #achievedPageConfidence(int)}.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class SamplingPlan {
+    /**
+     * Количество страниц результатов поиска
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final int pageCount;
+    /**
+     * Количество товаров на странице
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final int pageSize;
+    /**
+     * Требуемая уверенность
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final double confidence;
+    /**
+     * Допустимая доля несоответствующих товаров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final double maxViolationRate;
+    /**
+     * Начальное значение генератора случайных чисел
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final long seed;
+    /**
+     * Требуемый размер выборки
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final int sampleSize;
+    /**
+     * Номера выбранных страниц по возрастанию
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<Integer> pages = new ArrayList<>();
+    /**
+     * Количество товаров, выбираемых на странице
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final int productsPerPage;
+
+    /**
+     * Конструктор класса {@link SamplingPlan}.
+     * <p>
+     * Чтобы выборка не зависела от одной страницы, на странице выбирается не более половины товаров,
+     * пока не выбраны все страницы.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param pageCount        количество страниц результатов поиска
+     * @param pageSize         количество товаров на странице
+     * @param confidence       требуемая уверенность, например 0.99
+     * @param maxViolationRate допустимая доля несоответствующих товаров, например 0.01
+     * @param seed             начальное значение генератора случайных чисел
+     * @throws IllegalArgumentException уверенность или доля несоответствий вне интервала (0, 1)
+     */
+    public SamplingPlan(int pageCount, int pageSize, double confidence, double maxViolationRate, long seed) {
+        this.pageCount = Math.max(1, pageCount);
+        this.pageSize = Math.max(1, pageSize);
+        this.confidence = confidence;
+        this.maxViolationRate = maxViolationRate;
+        this.seed = seed;
+        this.sampleSize = requiredSampleSize(confidence, maxViolationRate);
+
+        int perPageLimit = Math.max(1, this.pageSize / 2);
+        int pagesToVisit = (int) Math.min(this.pageCount, Math.ceil((double) sampleSize / perPageLimit));
+        this.productsPerPage = (int) Math.min(this.pageSize, Math.ceil((double) sampleSize / pagesToVisit));
+
+        Random random = new Random(seed);
+        for (int stratum = 0; stratum < pagesToVisit; stratum++) {
+            int first = 1 + (int) ((long) stratum * this.pageCount / pagesToVisit);
+            int last = (int) ((long) (stratum + 1) * this.pageCount / pagesToVisit);
+            pages.add(first + random.nextInt(last - first + 1));
+        }
+    }
+
+    /**
+     * Вычисление размера выборки без несоответствий, достаточного для заданной уверенности.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param confidence       требуемая уверенность
+     * @param maxViolationRate допустимая доля несоответствующих товаров
+     * @return размер выборки
+     * @throws IllegalArgumentException уверенность или доля несоответствий вне интервала (0, 1)
+     */
+    public static int requiredSampleSize(double confidence, double maxViolationRate) {
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException(String.format("Уверенность должна быть в интервале (0, 1): %s", confidence));
+        }
+        if (!(maxViolationRate > 0 && maxViolationRate < 1)) {
+            throw new IllegalArgumentException(String.format("Доля несоответствий должна быть в интервале (0, 1): %s", maxViolationRate));
+        }
+        return (int) Math.ceil(Math.log(1 - confidence) / Math.log(1 - maxViolationRate));
+    }
+
+    /**
+     * Вычисление достигнутой уверенности по количеству проверенных товаров без несоответствий.
+     * <p>
+     * Если проверены все товары всех страниц, уверенность равна 1.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param checked количество проверенных товаров
+     * @return уверенность, что доля несоответствующих товаров меньше допустимой
+     */
+    public double achievedConfidence(int checked) {
+        if (checked >= (long) pageCount * pageSize) return 1;
+        return 1 - Math.pow(1 - maxViolationRate, checked);
+    }
+
+    /**
+     * Вычисление достигнутой уверенности по страницам как единицам выборки.
+     * <p>
+     * Каждая проверенная без несоответствий страница считается одним испытанием, поэтому оценка не зависит
+     * от того, как несоответствия распределены между товарами страницы. Это уверенность, что доля страниц
+     * с несоответствиями меньше допустимой доли. Если проверены все страницы, уверенность равна 1.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param visited количество проверенных страниц
+     * @return уверенность, что доля страниц с несоответствиями меньше допустимой
+     */
+    public double achievedPageConfidence(int visited) {
+        if (visited >= pageCount) return 1;
+        return 1 - Math.pow(1 - maxViolationRate, visited);
+    }
+
+    /**
+     * Выбор товаров страницы.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param pageNumber номер страницы
+     * @param products   товары страницы
+     * @return выбранные товары в порядке на странице
+     */
+    public List<Product> sample(int pageNumber, List<Product> products) {
+        if (products.size() <= productsPerPage) return products;
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            indexes.add(i);
+        }
+        Collections.shuffle(indexes, new Random(seed * 31 + pageNumber));
+        List<Integer> chosen = new ArrayList<>(indexes.subList(0, productsPerPage));
+        Collections.sort(chosen);
+        List<Product> sample = new ArrayList<>();
+        chosen.forEach(i -> sample.add(products.get(i)));
+        return sample;
+    }
+
+    /**
+     * Получение номеров выбранных страниц.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return номера страниц по возрастанию
+     */
+    public List<Integer> getPages() {
+        return Collections.unmodifiableList(pages);
+    }
+
+    /**
+     * Получение требуемого размера выборки.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return размер выборки
+     */
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    /**
+     * Получение требуемой уверенности.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return уверенность
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+
+    /**
+     * Получение допустимой доли несоответствующих товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return доля несоответствующих товаров
+     */
+    public double getMaxViolationRate() {
+        return maxViolationRate;
+    }
+
+    /**
+     * Получение начального значения генератора случайных чисел.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return начальное значение
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Получение количества страниц результатов поиска.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return количество страниц
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+}
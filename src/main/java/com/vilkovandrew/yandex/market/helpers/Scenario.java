@@ -0,0 +1,136 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import java.util.List;
+
+/**
+ * Класс представляющий сценарий проверки фильтров: путь по каталогу и устанавливаемые фильтры.
+ *
+ * @author Вилков Андрей
+ */
+public class Scenario {
+    /**
+     * URL, с которого начинается сценарий
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String url;
+
+    /**
+     * Имя категории каталога
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String catalogSection;
+
+    /**
+     * Имя раздела категории
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String itemSection;
+
+    /**
+     * Фильтры
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<Filter> filters;
+
+    /**
+     * Конструктор класса {@link Scenario}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param url            URL, с которого начинается сценарий
+     * @param catalogSection имя категории каталога
+     * @param itemSection    имя раздела категории
+     * @param filters        фильтры
+     */
+    public Scenario(String url, String catalogSection, String itemSection, List<Filter> filters) {
+        this.url = url;
+        this.catalogSection = catalogSection;
+        this.itemSection = itemSection;
+        this.filters = filters;
+    }
+
+    /**
+     * Получение шагов навигации сценария до установки фильтров.
+     * <p>
+     * Сценарии с совпадающим началом этого списка проходят общую часть навигации один раз.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return URL, имя категории и имя раздела
+     */
+    public List<String> getNavigation() {
+        return List.of(url, catalogSection, itemSection);
+    }
+
+    /**
+     * Получение URL, с которого начинается сценарий.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return URL
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Получение имени категории каталога.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return имя категории
+     */
+    public String getCatalogSection() {
+        return catalogSection;
+    }
+
+    /**
+     * Получение имени раздела категории.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return имя раздела
+     */
+    public String getItemSection() {
+        return itemSection;
+    }
+
+    /**
+     * Получение фильтров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return фильтры
+     */
+    public List<Filter> getFilters() {
+        return filters;
+    }
+
+    /**
+     * Получение строкового представления сценария.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return путь по каталогу и фильтры
+     */
+    @Override
+    public String toString() {
+        return String.format("%s > %s: %s", catalogSection, itemSection, filters);
+    }
+}
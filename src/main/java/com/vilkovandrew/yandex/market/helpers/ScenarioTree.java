@@ -0,0 +1,138 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Дерево сценариев по общим началам навигации.
+ * <p>
+ * Каждый узел соответствует шагу навигации, путь от корня до узла - началу навигации,
+ * общему для всех сценариев поддерева. Сценарии хранятся в узлах, где их навигация заканчивается.
+ * </p>
+ *
+ * @author Вилков Андрей
+ */
+public class ScenarioTree {
+    /**
+     * Шаг навигации узла, пустая строка для корня
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final String step;
+
+    /**
+     * Путь от корня до узла
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<String> path;
+
+    /**
+     * Дочерние узлы по шагу навигации в порядке появления
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final Map<String, ScenarioTree> children = new LinkedHashMap<>();
+
+    /**
+     * Сценарии, навигация которых заканчивается в узле
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private final List<Scenario> scenarios = new ArrayList<>();
+
+    /**
+     * Конструктор класса {@link ScenarioTree}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param step шаг навигации узла
+     * @param path путь от корня до узла
+     */
+    private ScenarioTree(String step, List<String> path) {
+        this.step = step;
+        this.path = path;
+    }
+
+    /**
+     * Построение дерева сценариев.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param scenarios сценарии
+     * @return корень дерева
+     */
+    public static ScenarioTree of(Collection<Scenario> scenarios) {
+        ScenarioTree root = new ScenarioTree("", List.of());
+        for (Scenario scenario : scenarios) {
+            ScenarioTree node = root;
+            for (String step : scenario.getNavigation()) {
+                ScenarioTree parent = node;
+                node = parent.children.computeIfAbsent(step, key -> {
+                    List<String> path = new ArrayList<>(parent.path);
+                    path.add(key);
+                    return new ScenarioTree(key, List.copyOf(path));
+                });
+            }
+            node.scenarios.add(scenario);
+        }
+        return root;
+    }
+
+    /**
+     * Получение шага навигации узла.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return шаг навигации, пустая строка для корня
+     */
+    public String getStep() {
+        return step;
+    }
+
+    /**
+     * Получение пути от корня до узла.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return шаги навигации
+     */
+    public List<String> getPath() {
+        return path;
+    }
+
+    /**
+     * Получение дочерних узлов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return дочерние узлы в порядке появления сценариев
+     */
+    public Collection<ScenarioTree> getChildren() {
+        return children.values();
+    }
+
+    /**
+     * Получение сценариев, навигация которых заканчивается в узле.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return сценарии
+     */
+    public List<Scenario> getScenarios() {
+        return scenarios;
+    }
+}
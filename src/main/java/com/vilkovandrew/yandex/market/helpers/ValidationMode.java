@@ -0,0 +1,52 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+/**
+ * Класс предоставляющий способы проверки товаров на страницах результатов поиска
+ *
+ * @author Вилков Андрей
+ */
+public enum ValidationMode {
+    /**
+     * Последовательная проверка страниц в текущей сессии браузера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    SEQUENTIAL,
+    /**
+     * Проверка диапазонов страниц в нескольких сессиях браузера одновременно
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    PARALLEL,
+    /**
+     * Последовательная проверка товаров, полученных из ответов сервера с результатами поиска,
+     * без прокрутки списка товаров
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    INTERCEPT,
+    /**
+     * Выборочная проверка товаров случайно выбранных страниц до заданной уверенности
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    SAMPLING,
+    /**
+     * Последовательная проверка товаров по мере их отрисовки во время прокрутки списка
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    STREAMING,
+    /**
+     * Проверка товаров из HTML страниц результатов поиска, загруженных без браузера
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    HTTP;
+}
@@ -2,33 +2,66 @@ package com.vilkovandrew.yandex.market.pages;
 
 import com.codeborne.selenide.ElementsCollection;
 import com.codeborne.selenide.SelenideElement;
+import com.vilkovandrew.helpers.AdaptiveTimeouts;
 import com.vilkovandrew.helpers.Assertions;
+import com.vilkovandrew.helpers.BrowserPool;
+import com.vilkovandrew.helpers.Cdp;
 import com.vilkovandrew.helpers.Properties;
+import com.vilkovandrew.helpers.Scripts;
+import com.vilkovandrew.helpers.Waits;
 import com.vilkovandrew.yandex.market.helpers.CheckBoxFilter;
+import com.vilkovandrew.yandex.market.helpers.CompiledFilter;
+import com.vilkovandrew.yandex.market.helpers.ExtractionMode;
 import com.vilkovandrew.yandex.market.helpers.Filter;
+import com.vilkovandrew.yandex.market.helpers.FilterApplyMode;
+import com.vilkovandrew.yandex.market.helpers.FilterExpression;
+import com.vilkovandrew.yandex.market.helpers.FilterIndex;
+import com.vilkovandrew.yandex.market.helpers.ListingCrawler;
+import com.vilkovandrew.yandex.market.helpers.MatchReport;
 import com.vilkovandrew.yandex.market.helpers.Product;
+import com.vilkovandrew.yandex.market.helpers.ProductBatch;
+import com.vilkovandrew.yandex.market.helpers.ProductInterceptor;
+import com.vilkovandrew.yandex.market.helpers.ProductVerdictTable;
 import com.vilkovandrew.yandex.market.helpers.RangeFilter;
+import com.vilkovandrew.yandex.market.helpers.ReportMode;
+import com.vilkovandrew.yandex.market.helpers.SamplingPlan;
+import com.vilkovandrew.yandex.market.helpers.ValidationMode;
 import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
+import io.qameta.allure.model.Parameter;
 import io.qameta.allure.model.Status;
 import io.qameta.allure.model.StepResult;
 import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static com.codeborne.selenide.CollectionCondition.*;
 import static com.codeborne.selenide.Condition.*;
 import static com.codeborne.selenide.Selenide.*;
 import static java.lang.String.format;
-import static java.time.Duration.ofSeconds;
 
 /**
  * Класс представляющий Page Object для страницы 'Результаты поиска в каталоге Яндекс Маркет'.
@@ -36,13 +69,45 @@ import static java.time.Duration.ofSeconds;
  * @author Vilkov Andrew
  */
 public class CatalogListPage {
+    /**
+     * XPath списка товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String XPATH_VIRTUOSO_ITEM_LIST = "//*[@data-test-id='virtuoso-item-list']";
+
     /**
      * Локатор для списка товаров.
      * <p>
      * Автор: Вилков Андрей
      * </p>
      */
-    public static final By LOCATOR_VIRTUOSO_ITEM_LIST = By.xpath("//*[@data-test-id='virtuoso-item-list']");
+    public static final By LOCATOR_VIRTUOSO_ITEM_LIST = By.xpath(XPATH_VIRTUOSO_ITEM_LIST);
+
+    /**
+     * Время без изменений списка товаров в мс, после которого прокрутка считается завершённой.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final int SCROLL_QUIET_MILLIS = 300;
+
+    /**
+     * Максимальное время прокрутки списка товаров в мс.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final int SCROLL_TIMEOUT_MILLIS = 20000;
+
+    /**
+     * Имена двух вкладок, по очереди используемых для проверки текущей и предзагрузки следующей страницы.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String[] PREFETCH_WINDOW_NAMES = {"catalog-page-a", "catalog-page-b"};
 
     /**
      * Локатор для прелоадера в блоке товаров.
@@ -51,6 +116,14 @@ public class CatalogListPage {
      * </p>
      */
     public static final By LOCATOR_PRELOADER = By.xpath("//*[@id='searchResults']/../div[@data-auto='preloader']");
+
+    /**
+     * Локатор для индикатора загрузки значений фильтра.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final By LOCATOR_PROGRESSBAR = By.xpath("//*[@role='progressbar']");
     /**
      * Локатор для поля ввода.
      * <p>
@@ -67,12 +140,12 @@ public class CatalogListPage {
     public static final By LOCATOR_DATA_FILTER_VALUE = By.xpath(".//*[@data-filter-value-id and .//span[text()!='']]/label");
 
     /**
-     * Локатор для блоков фильтров.
+     * XPath блоков фильтров.
      * <p>
      * Автор: Вилков Андрей
      * </p>
      */
-    private static final By LOCATOR_FILTER_BLOCK = By.xpath("//*[@data-grabber='SearchFilters']//*[@data-filter-id]");
+    private static final String XPATH_FILTER_BLOCK = "//*[@data-grabber='SearchFilters']//*[@data-filter-id]";
 
     /**
      * Локатор поля минимального значения фильтра диапазона
@@ -98,6 +171,30 @@ public class CatalogListPage {
      */
     private static final By MORE_VALUE_BUTTON = By.xpath(".//button[@aria-expanded]");
 
+    /**
+     * Идентификатор блока фильтра по цене, задаётся параметрами pricefrom и priceto.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String PRICE_FILTER_ID = "glprice";
+
+    /**
+     * Идентификаторы блоков фильтров по разделу каталога и имени фильтра.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<String, String> FILTER_IDS = new ConcurrentHashMap<>();
+
+    /**
+     * Идентификаторы значений фильтров по разделу каталога, имени фильтра и названию значения.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Map<String, String> FILTER_VALUE_IDS = new ConcurrentHashMap<>();
+
     /**
      * Локатор кнопки 'Вперёд', для перехода на следующую страницу.
      * <p>
@@ -106,13 +203,45 @@ public class CatalogListPage {
      */
     private static final By LOCATOR_NEXT_PAGE_BUTTON = By.xpath("//*[@data-auto='pagination-next']");
 
+    /**
+     * Локатор кнопок с номерами страниц.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final By LOCATOR_PAGINATION_PAGE = By.xpath("//*[@data-auto='pagination-page']");
+
+    /**
+     * Локатор текста с общим количеством найденных товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final By LOCATOR_RESULT_COUNT = By.xpath("//*[@data-auto='SerpTitle']//*[contains(text(), 'найден')]");
+
+    /**
+     * Паттерн для параметра с номером страницы в ссылке
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Pattern PAGE_NUMBER_PATTERN = Pattern.compile(".*(page=\\d+).?");
+
+    /**
+     * XPath ссылок в заголовках товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String XPATH_PRODUCT_ITEM = "//article//h3[@data-zone-name='title']/a[@href]";
+
     /**
      * Локатор для списка товаров.
      * <p>
      * Автор: Вилков Андрей
      * </p>
      */
-    private static final By LOCATOR_PRODUCT_ITEM = By.xpath("//article//h3[@data-zone-name='title']/a[@href]");
+    private static final By LOCATOR_PRODUCT_ITEM = By.xpath(XPATH_PRODUCT_ITEM);
 
     /**
      * Локатор элемента появляющегося последним для определения загрузки страницы.
@@ -138,6 +267,22 @@ public class CatalogListPage {
      */
     private static final By LOCATOR_SEARCH_INPUT = By.xpath("//input[@id='header-search']");
 
+    /**
+     * Описание блоков фильтров текущей страницы.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private FilterIndex filterIndex;
+
+    /**
+     * Ссылка страницы, для которой получено описание блоков фильтров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private String filterIndexUrl;
+
     /**
      * Установка диапазона значений для фильтра
      *
@@ -161,24 +306,82 @@ public class CatalogListPage {
         SelenideElement minValueField = filterElement.$(MIN_VALUE_RANGE_FILTER);
         SelenideElement maxValueField = filterElement.$(MAX_VALUE_RANGE_FILTER);
 
+        long mark = Waits.isEventDriven() ? Waits.mark() : 0;
         minValueField.click();
         minValueField.setValue(String.valueOf(minValue));
         maxValueField.click();
         maxValueField.setValue(String.valueOf(maxValue));
 
-        preloaderWait();
+        preloaderWait(mark);
         return this;
     }
 
     /**
      * Ожидание загрузки товаров и пропадания прелоадера в блоке товаров
      * <p>
+     * В режиме ожидания по событиям дожидается завершения запроса результатов поиска (wait.xhr_pattern),
+     * начатого после изменения фильтра, и отсутствия сетевой активности, после чего только проверяет,
+     * что прелоадер скрыт.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param mark отметка {@link Waits#mark()}, снятая до изменения фильтра
+     */
+    private void preloaderWait(long mark) {
+        filterIndex = null;
+        if (Waits.isEventDriven()) {
+            String xhrPattern = Properties.appProperties.getWaitXhrPattern();
+            long timeoutMillis = Properties.appProperties.getWaitTimeoutMillis();
+            Assertions.assertTrue(!xhrPattern.isEmpty(),
+                    "Для ожидания по событиям (wait.mode=CDP) должен быть задан шаблон запроса результатов поиска wait.xhr_pattern");
+            Assertions.assertTrue(Waits.requestCompleted(Pattern.compile(xhrPattern), mark, timeoutMillis),
+                    format("Запрос результатов поиска '%s' не завершился за %d мс после изменения фильтра", xhrPattern, timeoutMillis));
+        }
+        loadingWait(LOCATOR_PRELOADER);
+    }
+
+    /**
+     * Ожидание пропадания индикатора загрузки.
+     * <p>
+     * В режиме ожидания по событиям дожидается отсутствия сетевой активности, после чего только проверяет,
+     * что индикатор скрыт. Истечение времени ожидания сети отражается в отчёте {@link Waits#networkIdle()}.
+     * Иначе дожидается появления индикатора и его пропадания.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param indicator локатор индикатора загрузки
+     */
+    private void loadingWait(By indicator) {
+        if (Waits.isEventDriven()) {
+            Waits.networkIdle();
+            AdaptiveTimeouts.await(indicator + " disappear", timeout -> $(indicator).should(disappear, timeout));
+            return;
+        }
+        SelenideElement preloader = $(indicator).shouldBe(visible);
+        AdaptiveTimeouts.await(indicator + " disappear", timeout -> preloader.should(disappear, timeout));
+    }
+
+    /**
+     * Ожидание загрузки страницы результатов поиска.
+     * <p>
      * Автор: Вилков Андрей
      * </p>
      */
-    private void preloaderWait() {
-        SelenideElement preloader = $(LOCATOR_PRELOADER).shouldBe(visible);
-        preloader.should(disappear, ofSeconds(20));
+    private void pageLoadWait() {
+        if (Waits.isEventDriven()) {
+            Waits.networkIdle();
+        }
+        AdaptiveTimeouts.await(PAGE_LOAD_LOCATOR + " exist", timeout -> $(PAGE_LOAD_LOCATOR).shouldBe(exist, timeout));
+        Number loadMillis = executeJavaScript("var navigation = performance.getEntriesByType('navigation')[0];"
+                + "if (!navigation || !navigation.loadEventEnd || window.__pageLoadRecorded) return null;"
+                + "window.__pageLoadRecorded = true; return navigation.loadEventEnd;");
+        if (loadMillis != null) {
+            AdaptiveTimeouts.record(AdaptiveTimeouts.PAGE_LOAD, loadMillis.longValue());
+        }
     }
 
     /**
@@ -199,14 +402,7 @@ public class CatalogListPage {
 
         SelenideElement filterElement = filterBlock.get();
         filterElement.scrollIntoView(true);
-        if (filterElement.$$(MORE_VALUE_BUTTON).size() > 0) {
-            SelenideElement moreButton = filterElement.$(MORE_VALUE_BUTTON);
-            if (!Boolean.parseBoolean(moreButton.getDomAttribute("aria-expanded"))) {
-                moreButton.click();
-                SelenideElement preloader = $x("//*[@role='progressbar']").shouldBe(visible);
-                preloader.should(disappear, ofSeconds(20));
-            }
-        }
+        expandFilterValues(filterElement);
 
         for (String value : values) {
             if (filterElement.$$(LOCATOR_INPUT_TEXT).size() > 0) {
@@ -217,7 +413,7 @@ public class CatalogListPage {
             }
 
             ElementsCollection presenceValue = filterElement.$$(LOCATOR_DATA_FILTER_VALUE);
-            presenceValue.shouldHave(exactTexts(value));
+            AdaptiveTimeouts.await(LOCATOR_DATA_FILTER_VALUE + " exactTexts", timeout -> presenceValue.shouldHave(exactTexts(value), timeout));
 
             Assertions.assertNotEquals(0, presenceValue.size(),
                     format("Ожидаем что для фильтра '%s' есть значение '%s', совпадений не найдено.", filterName, value));
@@ -226,15 +422,41 @@ public class CatalogListPage {
 
             Assertions.assertTrue(filterValue.isPresent(), "Пункт фильтра '" + value + "' не найден.");
             SelenideElement filterValueElement = filterValue.get();
+            long mark = Waits.isEventDriven() ? Waits.mark() : 0;
             filterValueElement.click();
-            preloaderWait();
+            preloaderWait(mark);
         }
         return this;
     }
 
+    /**
+     * Раскрытие всех значений фильтра кнопкой 'Показать всё', если она есть и значения ещё не раскрыты
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filterElement блок фильтра
+     */
+    private void expandFilterValues(SelenideElement filterElement) {
+        if (filterElement.$$(MORE_VALUE_BUTTON).size() > 0) {
+            SelenideElement moreButton = filterElement.$(MORE_VALUE_BUTTON);
+            if (!Boolean.parseBoolean(moreButton.getDomAttribute("aria-expanded"))) {
+                moreButton.click();
+                filterIndex = null;
+                loadingWait(LOCATOR_PROGRESSBAR);
+                if (Waits.isEventDriven() && !Waits.domQuiet(filterElement, 200, Properties.appProperties.getWaitTimeoutMillis())) {
+                    Waits.reportTimeout("отсутствие изменений в блоке фильтра", Properties.appProperties.getWaitTimeoutMillis());
+                }
+            }
+        }
+    }
+
     /**
      * Вспомогательный метод для получения блока фильтра по его имени
      * <p>
+     * Блок ищется в описании блоков фильтров страницы без обращений к браузеру.
+     * </p>
+     * <p>
      * Автор: Вилков Андрей
      * </p>
      *
@@ -242,15 +464,30 @@ public class CatalogListPage {
      * @return {@link Optional<SelenideElement>} возвращает результат поиска блока фильтра по его имени
      */
     private Optional<SelenideElement> getFilterBlockElement(String filterName) {
-        ElementsCollection filtersList = $$(LOCATOR_FILTER_BLOCK);
+        return filterIndex().find(filterName)
+                .map(entry -> $x(format("%s[@data-filter-id='%s']", XPATH_FILTER_BLOCK, entry.getId())));
+    }
 
-        Optional<SelenideElement> filterBlock = filtersList.asFixedIterable().stream()
-                .filter(e -> {
-                    String elementName = e.scrollTo().getText().toUpperCase();
-                    return elementName.contains(filterName.toUpperCase());
-                })
-                .findAny();
-        return filterBlock;
+    /**
+     * Получение описания блоков фильтров текущей страницы.
+     * <p>
+     * Описание получается одним вызовом скрипта и используется повторно, пока не изменится ссылка страницы
+     * или состояние фильтров.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return {@link FilterIndex} описание блоков фильтров
+     */
+    private FilterIndex filterIndex() {
+        String url = webdriver().driver().url();
+        if (filterIndex == null || !url.equals(filterIndexUrl)) {
+            List<Map<String, Object>> blocks = executeJavaScript(Scripts.get("filter-index"), XPATH_FILTER_BLOCK);
+            filterIndex = new FilterIndex(blocks == null ? List.of() : blocks);
+            filterIndexUrl = url;
+        }
+        return filterIndex;
     }
 
     /**
@@ -263,13 +500,65 @@ public class CatalogListPage {
      */
     @Step("Получаем список товаров с текущей страницы")
     public ElementsCollection getProductOnPage() {
-        $(PAGE_LOAD_LOCATOR).shouldBe(exist, ofSeconds(20));
+        pageLoadWait();
 
         scrollToBottom();
 
         return $$(LOCATOR_PRODUCT_ITEM);
     }
 
+    /**
+     * Получение данных всех товаров со страницы поиска одним вызовом скрипта.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return список товаров на странице
+     */
+    @Step("Получаем данные товаров с текущей страницы")
+    public List<Product> getProductsDataOnPage() {
+        return collectProducts();
+    }
+
+    /**
+     * Ожидание загрузки и получение данных всех товаров текущей страницы без создания шагов отчёта.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return список товаров на странице
+     */
+    private List<Product> collectProducts() {
+        pageLoadWait();
+        int rendered = scrollToBottom();
+        if (Properties.appProperties.getProductExtractionMode() == ExtractionMode.BATCH) {
+            return extractProducts();
+        }
+        List<Product> products = new ArrayList<>(rendered);
+        for (SelenideElement element : $$(LOCATOR_PRODUCT_ITEM).asDynamicIterable()) {
+            AdaptiveTimeouts.await(LOCATOR_PRODUCT_ITEM + " visible", timeout -> element.scrollIntoView(true).shouldBe(visible, timeout));
+            products.add(new Product(element));
+        }
+        return products;
+    }
+
+    /**
+     * Получение данных товаров, отрисованных на странице, одним вызовом скрипта.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return список товаров на странице
+     */
+    private List<Product> extractProducts() {
+        List<Map<String, Object>> items = executeJavaScript(Scripts.get("extract-products"), XPATH_PRODUCT_ITEM, Product.XPATH_PRICE_ITEM);
+        List<Product> products = new ArrayList<>();
+        if (items != null) {
+            items.forEach(item -> products.add(new Product(item)));
+        }
+        return products;
+    }
+
     /**
      * Переход на конкретную страницу по номеру.
      * <p>
@@ -281,39 +570,86 @@ public class CatalogListPage {
      */
     @Step("Переход на страницу №{pageNumber}")
     public CatalogListPage goToPage(int pageNumber) {
-        String currentUrl = webdriver().driver().getCurrentFrameUrl();
-        Pattern pageCurrentNumberPattern = Pattern.compile(".*(page=\\d+).?");
-        Matcher matcher = pageCurrentNumberPattern.matcher(currentUrl);
+        String pageUrl = pageUrl(webdriver().driver().getCurrentFrameUrl(), pageNumber);
+        scrollToBottom();
+        return open(pageUrl, CatalogListPage.class);
+    }
+
+    /**
+     * Получение ссылки на страницу результатов поиска с заданным номером.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param url        ссылка на любую страницу результатов поиска
+     * @param pageNumber номер страницы
+     * @return ссылка на страницу с заданным номером
+     */
+    public static String pageUrl(String url, int pageNumber) {
+        Matcher matcher = PAGE_NUMBER_PATTERN.matcher(url);
         if (matcher.find()) {
-            currentUrl = currentUrl.replace(matcher.group(1), format("page=%d", pageNumber));
-        } else {
-            currentUrl = format("%s&page=%d", currentUrl, pageNumber);
+            return url.replace(matcher.group(1), format("page=%d", pageNumber));
         }
-        scrollToBottom();
-        return open(currentUrl, CatalogListPage.class);
+        return format("%s&page=%d", url, pageNumber);
     }
 
     /**
-     * Прокрутка страницы вниз на высоту элемента содержащего список товаров
+     * Получение количества страниц результатов поиска.
      * <p>
      * Автор: Вилков Андрей
      * </p>
+     *
+     * @return номер последней страницы, 1 если переключатель страниц отсутствует
      */
-    private void scrollToBottom() {
-        $(LOCATOR_VIRTUOSO_ITEM_LIST).scrollIntoView(true);
-        Pattern digit = Pattern.compile("(\\d+).*");
-        SelenideElement scroller = $(LOCATOR_VIRTUOSO_ITEM_LIST);
-        int scrollerHight = 0;
-        do {
-            String hight = scroller.getCssValue("paddingBottom");
-            Matcher matcher = digit.matcher(hight);
-            if (matcher.find()) {
-                scrollerHight = Integer.parseInt(matcher.group(1));
-            }
-            actions().scrollByAmount(0, scrollerHight).perform();
-        } while (scrollerHight > 0);
-        $$(LOCATOR_PRODUCT_ITEM).last().scrollTo();
-        actions().pause(100).perform();
+    public int getPageCount() {
+        return $$(LOCATOR_PAGINATION_PAGE).texts().stream()
+                .map(String::trim)
+                .filter(text -> text.matches("\\d+"))
+                .mapToInt(Integer::parseInt)
+                .max()
+                .orElse(1);
+    }
+
+    /**
+     * Получение общего количества найденных товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return количество товаров, 0 если количество не показано
+     */
+    public long getResultCount() {
+        return $$(LOCATOR_RESULT_COUNT).texts().stream()
+                .map(text -> text.replaceAll("\\D", ""))
+                .filter(digits -> !digits.isEmpty() && digits.length() < 19)
+                .mapToLong(Long::parseLong)
+                .max()
+                .orElse(0);
+    }
+
+    /**
+     * Прокрутка страницы до конца списка товаров.
+     * <p>
+     * Прокрутка выполняется в браузере одним асинхронным вызовом и завершается,
+     * когда список перестаёт расти. Если прокрутка остановлена по истечении максимального времени,
+     * в отчёт добавляется шаг со статусом {@link Status#BROKEN}, так как список мог быть загружен не полностью.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return количество отрисованных товаров
+     */
+    private int scrollToBottom() {
+        Map<String, Object> result = executeAsyncJavaScript(Scripts.get("scroll-to-end"),
+                XPATH_VIRTUOSO_ITEM_LIST, XPATH_PRODUCT_ITEM, SCROLL_QUIET_MILLIS, SCROLL_TIMEOUT_MILLIS);
+        if (result == null) return 0;
+        int rendered = result.get("count") instanceof Number ? ((Number) result.get("count")).intValue() : 0;
+        if (Boolean.TRUE.equals(result.get("truncated"))) {
+            Allure.step(format("Прокрутка списка товаров остановлена через %d мс, отрисовано товаров %d, "
+                    + "список мог быть загружен не полностью", SCROLL_TIMEOUT_MILLIS, rendered), Status.BROKEN);
+        }
+        return rendered;
     }
 
     /**
@@ -365,6 +701,9 @@ public class CatalogListPage {
      */
     @Step("Установка значений для фильтров {filters}")
     public CatalogListPage setFilters(List<Filter> filters) {
+        if (Properties.appProperties.getFilterApplyMode() == FilterApplyMode.URL) {
+            return setFiltersByUrl(filters);
+        }
         filters.forEach(f -> {
             switch (f.getType()) {
                 case RANGE: {
@@ -383,56 +722,910 @@ public class CatalogListPage {
     }
 
     /**
-     * Проверка что на странице отображается товаров больше чем переданное значение
+     * Установка значений фильтров одним переходом по ссылке с параметрами фильтров
+     * <p>
+     * Цена задаётся параметрами pricefrom и priceto, остальные фильтры - параметрами glfilter
+     * с идентификаторами блоков и значений фильтров. Идентификаторы берутся из блоков фильтров
+     * один раз для раздела каталога и сохраняются.
+     * </p>
      * <p>
      * Автор: Вилков Андрей
      * </p>
      *
-     * @param number ожидаемое количество элементов на странице
+     * @param filters список фильтров
      * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     * @see Filter
      */
-    @Step("Проверяем что на странице более {number} элементов")
-    public CatalogListPage numberItemsOnPageMoreThan(int number) {
-        int actualSize = getProductOnPage().size();
-        Assertions.assertTrue(
-                actualSize
-                        >
-                        number,
-                "Ожидали что количестов элементов на странице более " + number +
-                        ", количество элементов на странице: " + actualSize);
+    @Step("Установка значений для фильтров переходом по ссылке")
+    public CatalogListPage setFiltersByUrl(List<Filter> filters) {
+        String url = webdriver().driver().url();
+        String section = URI.create(url).getPath();
+        Map<String, String> parameters = new LinkedHashMap<>();
+        List<String> glfilters = new ArrayList<>();
+        for (Filter filter : filters) {
+            String filterId = filterId(section, filter.getFilterName());
+            switch (filter.getType()) {
+                case RANGE: {
+                    RangeFilter rfilter = (RangeFilter) filter;
+                    if (PRICE_FILTER_ID.equals(filterId)) {
+                        parameters.put("pricefrom", String.valueOf(rfilter.getMinValue()));
+                        parameters.put("priceto", String.valueOf(rfilter.getMaxValue()));
+                    } else {
+                        glfilters.add(format("%s:%d~%d", filterId, rfilter.getMinValue(), rfilter.getMaxValue()));
+                    }
+                }
+                break;
+                case CHECKBOX: {
+                    CheckBoxFilter chfilter = (CheckBoxFilter) filter;
+                    List<String> valueIds = new ArrayList<>();
+                    for (String value : chfilter.getValues()) {
+                        valueIds.add(filterValueId(section, filterId, chfilter.getFilterName(), value));
+                    }
+                    glfilters.add(filterId + ":" + String.join(",", valueIds));
+                }
+                break;
+            }
+        }
+
+        StringBuilder filteredUrl = new StringBuilder(url.replaceAll("\\bpage=\\d+&?", "").replaceAll("[?&]$", ""));
+        parameters.forEach((name, value) -> appendParameter(filteredUrl, name, value));
+        glfilters.forEach(value -> appendParameter(filteredUrl, "glfilter", value));
+        open(filteredUrl.toString());
+        pageLoadWait();
         return this;
     }
 
     /**
-     * Проверка соответствия всех товаров на всех страницах переданным фильтрам
+     * Добавление параметра к ссылке
      * <p>
      * Автор: Вилков Андрей
      * </p>
      *
-     * @param filters список фильтров
-     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
-     * @see Filter
+     * @param url   ссылка
+     * @param name  имя параметра
+     * @param value значение параметра
      */
-    @Step("Проверка соответствия товаров фильтрам")
-    public CatalogListPage isAllProductsMatchFilters(List<Filter> filters) {
-        final String parentUUID = Allure.getLifecycle().getCurrentTestCaseOrStep().get();
+    private static void appendParameter(StringBuilder url, String name, String value) {
+        url.append(url.indexOf("?") < 0 ? '?' : '&')
+                .append(name)
+                .append('=')
+                .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+    }
 
-        LocalTime startTime = LocalTime.now();
-        do {
-            for (SelenideElement element : getProductOnPage().asDynamicIterable()) {
-                element.scrollIntoView(true).shouldBe(visible, ofSeconds(20));
-                Product product = new Product(element);
-                UUID uuid = UUID.randomUUID();
-                Allure.getLifecycle().startStep(parentUUID, uuid.toString(), new StepResult()
-                        .setName(format("Тестируем %s", product.getHeader()))
-                        .setStatus(Status.PASSED)
-                );
-                filters.forEach(f -> {
-                    isMatchProductFilter(product, f);
-                });
-                Allure.getLifecycle().stopStep(uuid.toString());
-            }
-        } while (goToNextPage() && ChronoUnit.MINUTES.between(startTime, LocalTime.now()) < Properties.appProperties.getTimeoutNextPageLoop());
+    /**
+     * Получение идентификатора блока фильтра по его имени
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param section    раздел каталога, путь ссылки страницы
+     * @param filterName имя фильтра
+     * @return идентификатор блока фильтра
+     */
+    private String filterId(String section, String filterName) {
+        return FILTER_IDS.computeIfAbsent(section + "|" + FilterIndex.normalize(filterName), key -> {
+            Optional<FilterIndex.Entry> entry = filterIndex().find(filterName);
+            Assertions.assertTrue(entry.isPresent(), format("Фильтр с именем '%s' не найден.", filterName));
+            return entry.get().getId();
+        });
+    }
+
+    /**
+     * Получение идентификатора значения фильтра по его названию
+     * <p>
+     * При первом обращении сохраняются идентификаторы всех значений, отображаемых в блоке фильтра.
+     * Если значение не отображается, блок раскрывается и значение ищется через поле поиска блока.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param section    раздел каталога, путь ссылки страницы
+     * @param filterId   идентификатор блока фильтра
+     * @param filterName имя фильтра
+     * @param value      название значения
+     * @return идентификатор значения для параметра glfilter
+     */
+    private String filterValueId(String section, String filterId, String filterName, String value) {
+        String key = section + "|" + filterId + "|" + FilterIndex.normalize(value);
+        String valueId = FILTER_VALUE_IDS.get(key);
+        if (valueId != null) return valueId;
+
+        rememberFilterValueIds(section, filterId, filterName);
+        if (!FILTER_VALUE_IDS.containsKey(key)) {
+            Optional<SelenideElement> filterBlock = getFilterBlockElement(filterName);
+            Assertions.assertTrue(filterBlock.isPresent(), format("Фильтр с именем '%s' не найден.", filterName));
+            SelenideElement filterElement = filterBlock.get();
+            filterElement.scrollIntoView(true);
+            expandFilterValues(filterElement);
+            if (filterElement.$$(LOCATOR_INPUT_TEXT).size() > 0) {
+                SelenideElement inputField = filterElement.$(LOCATOR_INPUT_TEXT);
+                inputField.setValue(value);
+                filterElement.$$(LOCATOR_DATA_FILTER_VALUE).shouldHave(exactTexts(value));
+            }
+            filterIndex = null;
+            rememberFilterValueIds(section, filterId, filterName);
+        }
+
+        valueId = FILTER_VALUE_IDS.get(key);
+        Assertions.assertTrue(valueId != null,
+                format("Ожидаем что для фильтра '%s' есть значение '%s', совпадений не найдено.", filterName, value));
+        return valueId;
+    }
+
+    /**
+     * Сохранение идентификаторов значений, отображаемых в блоке фильтра
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param section    раздел каталога, путь ссылки страницы
+     * @param filterId   идентификатор блока фильтра
+     * @param filterName имя фильтра
+     */
+    private void rememberFilterValueIds(String section, String filterId, String filterName) {
+        filterIndex().find(filterName).ifPresent(entry -> entry.getValues().forEach((label, valueId) ->
+                FILTER_VALUE_IDS.put(section + "|" + filterId + "|" + label, valueId)));
+    }
+
+    /**
+     * Проверка что на странице отображается товаров больше чем переданное значение
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param number ожидаемое количество элементов на странице
+     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     */
+    @Step("Проверяем что на странице более {number} элементов")
+    public CatalogListPage numberItemsOnPageMoreThan(int number) {
+        int actualSize = getProductOnPage().size();
+        Assertions.assertTrue(
+                actualSize
+                        >
+                        number,
+                "Ожидали что количестов элементов на странице более " + number +
+                        ", количество элементов на странице: " + actualSize);
+        return this;
+    }
+
+    /**
+     * Проверка соответствия всех товаров на всех страницах переданным фильтрам
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filters список фильтров
+     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     * @see Filter
+     */
+    @Step("Проверка соответствия товаров фильтрам")
+    public CatalogListPage isAllProductsMatchFilters(List<Filter> filters) {
+        return checkAllProducts(FilterExpression.allOf(filters).compile());
+    }
+
+    /**
+     * Проверка соответствия всех товаров на всех страницах логическому выражению над фильтрами
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param expression выражение над фильтрами
+     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     * @see FilterExpression
+     */
+    @Step("Проверка соответствия товаров условию {expression}")
+    public CatalogListPage isAllProductsMatchExpression(FilterExpression expression) {
+        return checkAllProducts(expression.compile());
+    }
+
+    /**
+     * Проверка соответствия всех товаров на всех страницах скомпилированному выражению
+     * <p>
+     * Если задан режим {@link ValidationMode#INTERCEPT}, но браузер не поддерживает DevTools, товары берутся
+     * со страниц, а в отчёт добавляется шаг со статусом {@link Status#BROKEN}.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filter скомпилированное выражение над фильтрами
+     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     */
+    private CatalogListPage checkAllProducts(CompiledFilter filter) {
+        if (Properties.appProperties.getValidationMode() == ValidationMode.PARALLEL) {
+            return checkAllProductsParallel(filter);
+        }
+        if (Properties.appProperties.getValidationMode() == ValidationMode.INTERCEPT) {
+            if (Cdp.isSupported()) {
+                return checkAllProductsIntercepted(filter);
+            }
+            reportNote(currentStepUuid(), "Режим INTERCEPT недоступен: браузер не поддерживает DevTools, товары взяты со страниц",
+                    Status.BROKEN);
+        }
+        if (Properties.appProperties.getValidationMode() == ValidationMode.SAMPLING) {
+            return checkAllProductsSampled(filter);
+        }
+        if (Properties.appProperties.getValidationMode() == ValidationMode.STREAMING) {
+            return checkAllProductsStreaming(filter);
+        }
+        if (Properties.appProperties.getValidationMode() == ValidationMode.HTTP) {
+            return checkAllProductsHttp(filter);
+        }
+        if (Properties.appProperties.getPagePrefetch()) {
+            return checkAllProductsPrefetched(filter);
+        }
+        final String parentUUID = currentStepUuid();
+
+        LocalTime startTime = LocalTime.now();
+        int pageNumber = 1;
+        do {
+            reportPage(parentUUID, pageNumber++, getProductsDataOnPage(), filter);
+        } while (goToNextPage() && ChronoUnit.MINUTES.between(startTime, LocalTime.now()) < Properties.appProperties.getTimeoutNextPageLoop());
+        if (ChronoUnit.MINUTES.between(startTime, LocalTime.now()) >= Properties.appProperties.getTimeoutNextPageLoop()) {
+            reportNote(parentUUID, format("Проверка остановлена по истечении %d мин. после страницы №%d",
+                    Properties.appProperties.getTimeoutNextPageLoop(), pageNumber - 1), Status.BROKEN);
+        }
+        return this;
+    }
+
+    /**
+     * Проверка соответствия всех товаров на всех страницах скомпилированному выражению
+     * с предзагрузкой следующей страницы.
+     * <p>
+     * Пока проверяются товары страницы N, страница N+1 загружается и прокручивается во второй вкладке
+     * той же сессии. Переход на следующую страницу сводится к переключению вкладки, а освободившаяся
+     * вкладка используется для предзагрузки страницы N+2. Сессия DevTools привязана к первой вкладке,
+     * поэтому по завершении проверки драйвер возвращается в первую вкладку, а вторая закрывается.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filter скомпилированное выражение над фильтрами
+     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     */
+    private CatalogListPage checkAllProductsPrefetched(CompiledFilter filter) {
+        final String parentUUID = currentStepUuid();
+        final String listingUrl = webdriver().driver().getCurrentFrameUrl();
+        String[] handles = {webdriver().object().getWindowHandle(), null};
+        executeJavaScript("window.name = arguments[0];", PREFETCH_WINDOW_NAMES[0]);
+
+        LocalTime startTime = LocalTime.now();
+        int pageNumber = 1;
+        int current = 0;
+        try {
+            while (true) {
+                pageLoadWait();
+                boolean hasNextPage = $$(LOCATOR_NEXT_PAGE_BUTTON).size() > 0;
+                if (hasNextPage) {
+                    int next = 1 - current;
+                    prefetchPage(pageUrl(listingUrl, pageNumber + 1), PREFETCH_WINDOW_NAMES[next]);
+                    if (handles[next] == null) {
+                        final String currentHandle = handles[current];
+                        handles[next] = webdriver().object().getWindowHandles().stream()
+                                .filter(handle -> !handle.equals(currentHandle))
+                                .findFirst()
+                                .orElse(null);
+                    }
+                }
+                reportPage(parentUUID, pageNumber++, collectProducts(), filter);
+                if (!hasNextPage) {
+                    break;
+                }
+                if (ChronoUnit.MINUTES.between(startTime, LocalTime.now()) >= Properties.appProperties.getTimeoutNextPageLoop()) {
+                    reportNote(parentUUID, format("Проверка остановлена по истечении %d мин. после страницы №%d",
+                            Properties.appProperties.getTimeoutNextPageLoop(), pageNumber - 1), Status.BROKEN);
+                    break;
+                }
+                current = 1 - current;
+                Assertions.assertTrue(handles[current] != null, "Не найдена вкладка с предзагруженной страницей");
+                switchTo().window(handles[current]);
+                filterIndex = null;
+            }
+        } finally {
+            closePrefetchWindow(handles);
+        }
+        return this;
+    }
+
+    /**
+     * Возврат в первую вкладку, к которой привязана сессия DevTools, и закрытие вкладки предзагрузки.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param handles идентификаторы первой вкладки и вкладки предзагрузки, null если она не открывалась
+     */
+    private void closePrefetchWindow(String[] handles) {
+        WebDriver driver = webdriver().object();
+        if (handles[1] != null && driver.getWindowHandles().contains(handles[1])) {
+            driver.switchTo().window(handles[1]).close();
+        }
+        driver.switchTo().window(handles[0]);
+        filterIndex = null;
+    }
+
+    /**
+     * Запуск загрузки и прокрутки страницы в именованной вкладке без ожидания её завершения.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param url  ссылка на страницу
+     * @param name имя вкладки
+     */
+    private void prefetchPage(String url, String name) {
+        Boolean opened = executeJavaScript(Scripts.get("prefetch-page"), url, name,
+                XPATH_VIRTUOSO_ITEM_LIST, XPATH_PRODUCT_ITEM, SCROLL_QUIET_MILLIS, SCROLL_TIMEOUT_MILLIS);
+        Assertions.assertTrue(Boolean.TRUE.equals(opened), format("Не удалось открыть вкладку для страницы %s", url));
+    }
+
+    /**
+     * Проверка соответствия всех товаров на всех страницах скомпилированному выражению
+     * по товарам из ответов сервера с результатами поиска.
+     * <p>
+     * Товары первой страницы берутся со страницы, так как она уже загружена. Товары следующих страниц
+     * берутся из ответов, полученных после перехода, без прокрутки списка товаров. Если до истечения
+     * wait.timeout_ms после перехода ответ со списком товаров не получен, товары берутся со страницы
+     * и это отмечается в отчёте.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filter скомпилированное выражение над фильтрами
+     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     * @see ProductInterceptor
+     */
+    private CatalogListPage checkAllProductsIntercepted(CompiledFilter filter) {
+        final String parentUUID = currentStepUuid();
+        final long timeout = Properties.appProperties.getWaitTimeoutMillis();
+        final long deadline = deadline();
+        ProductInterceptor interceptor = ProductInterceptor.attach();
+
+        int pageNumber = 1;
+        List<Product> products = getProductsDataOnPage();
+        while (true) {
+            reportPage(parentUUID, pageNumber++, products, filter);
+            long mark = interceptor.mark();
+            if (System.nanoTime() - deadline >= 0 || !goToNextPage()) {
+                break;
+            }
+            products = interceptor.drain(mark, timeout);
+            if (products.isEmpty()) {
+                reportNote(parentUUID, format("Ответ с товарами страницы %d не получен за %d мс, товары взяты со страницы", pageNumber, timeout), Status.BROKEN);
+                products = getProductsDataOnPage();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Проверка соответствия всех товаров на всех страницах скомпилированному выражению
+     * по мере отрисовки товаров.
+     * <p>
+     * Данные товаров забираются из браузера порциями во время прокрутки списка и сразу проверяются,
+     * каждый товар учитывается один раз, даже если позже список удаляет его из страницы.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filter скомпилированное выражение над фильтрами
+     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     */
+    private CatalogListPage checkAllProductsStreaming(CompiledFilter filter) {
+        final String parentUUID = currentStepUuid();
+        final boolean steps = Properties.appProperties.getReportMode() == ReportMode.STEPS;
+        LocalTime startTime = LocalTime.now();
+        int pageNumber = 1;
+        do {
+            final int currentPage = pageNumber++;
+            List<Product> products = new ArrayList<>();
+            ProductVerdictTable table = new ProductVerdictTable();
+            pageLoadWait();
+            streamProducts(product -> {
+                products.add(product);
+                if (!steps) table.add(currentPage, products.size(), product, filter.evaluate(product));
+            });
+            if (steps) {
+                reportPage(parentUUID, currentPage, products, filter);
+            } else {
+                reportVerdicts(parentUUID, currentPage, products, table);
+            }
+        } while (goToNextPage() && ChronoUnit.MINUTES.between(startTime, LocalTime.now()) < Properties.appProperties.getTimeoutNextPageLoop());
+        return this;
+    }
+
+    /**
+     * Получение данных товаров текущей страницы порциями во время прокрутки списка.
+     * <p>
+     * Наблюдатель в браузере складывает данные каждого нового отрисованного товара в очередь,
+     * как только отрисована его цена, очередь забирается и передаётся обработчику, пока список
+     * не прокручен до конца. Товары, цена которых так и не отрисована, передаются в конце.
+     * Если прокрутка остановлена по истечении максимального времени, оставшиеся товары забираются,
+     * а в отчёт добавляется шаг со статусом {@link Status#BROKEN}, так как список мог быть загружен не полностью.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param consumer обработчик товара
+     */
+    private void streamProducts(Consumer<Product> consumer) {
+        executeJavaScript(Scripts.get("stream-products"), XPATH_VIRTUOSO_ITEM_LIST, XPATH_PRODUCT_ITEM, Product.XPATH_PRICE_ITEM);
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SCROLL_TIMEOUT_MILLIS);
+        int received = 0;
+        boolean truncated = false;
+        while (true) {
+            Map<String, Object> batch = executeAsyncJavaScript(Scripts.get("stream-products-next"),
+                    XPATH_VIRTUOSO_ITEM_LIST, SCROLL_QUIET_MILLIS, truncated);
+            if (batch == null) break;
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> items = (List<Map<String, Object>>) batch.get("items");
+            if (items != null) {
+                items.forEach(item -> consumer.accept(new Product(item)));
+                received += items.size();
+            }
+            if (Boolean.TRUE.equals(batch.get("done"))) break;
+            truncated = System.nanoTime() - deadline >= 0;
+        }
+        if (truncated) {
+            Allure.step(format("Прокрутка списка товаров остановлена через %d мс, получено товаров %d, "
+                    + "список мог быть загружен не полностью", SCROLL_TIMEOUT_MILLIS, received), Status.BROKEN);
+        }
+    }
+
+    /**
+     * Выборочная проверка соответствия товаров скомпилированному выражению.
+     * <p>
+     * Количество страниц для {@link SamplingPlan} вычисляется по общему количеству найденных товаров
+     * и количеству товаров первой страницы, так как переключатель страниц показывает только ближайшие страницы.
+     * Если общее количество не показано, используется последняя видимая страница и это отмечается в отчёте.
+     * Проверяются выбранные товары выбранных страниц. В отчёт записывается достигнутая уверенность по товарам
+     * и по страницам как единицам выборки и начальное значение генератора для воспроизведения выборки.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filter скомпилированное выражение над фильтрами
+     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     */
+    private CatalogListPage checkAllProductsSampled(CompiledFilter filter) {
+        final String parentUUID = currentStepUuid();
+        final String listingUrl = webdriver().driver().getCurrentFrameUrl();
+        final long deadline = deadline();
+        long seed = Properties.appProperties.getSamplingSeed();
+        if (seed == 0) {
+            seed = System.nanoTime();
+        }
+
+        List<Product> firstPage = getProductsDataOnPage();
+        int pageCount = estimatePageCount(parentUUID, firstPage.size());
+        SamplingPlan plan = new SamplingPlan(pageCount, firstPage.size(),
+                Properties.appProperties.getSamplingConfidence(), Properties.appProperties.getSamplingMaxViolationRate(), seed);
+
+        int checked = 0;
+        int visited = 0;
+        for (int pageNumber : plan.getPages()) {
+            if (System.nanoTime() - deadline >= 0) break;
+            List<Product> products = firstPage;
+            if (pageNumber != 1) {
+                open(pageUrl(listingUrl, pageNumber));
+                products = getProductsDataOnPage();
+            }
+            List<Product> sample = plan.sample(pageNumber, products);
+            reportPage(parentUUID, pageNumber, sample, filter);
+            checked += sample.size();
+            visited++;
+        }
+
+        double achieved = plan.achievedConfidence(checked);
+        reportNote(parentUUID, format("Выборочная проверка: проверено товаров %d на %d из %d страниц, "
+                                + "уверенность %.2f%% что доля несоответствий ниже %.2f%% (требуется %.2f%%, выборка %d), "
+                                + "по страницам %.2f%%, seed %d",
+                        checked, visited, plan.getPageCount(), achieved * 100, plan.getMaxViolationRate() * 100,
+                        plan.getConfidence() * 100, plan.getSampleSize(), plan.achievedPageConfidence(visited) * 100, plan.getSeed()),
+                achieved >= plan.getConfidence() ? Status.PASSED : Status.BROKEN);
+        return this;
+    }
+
+    /**
+     * Получение количества страниц результатов поиска по общему количеству товаров и размеру первой страницы.
+     * <p>
+     * Переключатель страниц показывает только ближайшие страницы, поэтому количество страниц вычисляется
+     * по общему количеству найденных товаров. Если оно не показано, используются видимые страницы
+     * и в отчёт добавляется шаг со статусом {@link Status#BROKEN}.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param parentUUID    идентификатор родительского шага
+     * @param firstPageSize количество товаров на первой странице
+     * @return количество страниц
+     */
+    private int estimatePageCount(String parentUUID, int firstPageSize) {
+        int pageCount = getPageCount();
+        long resultCount = getResultCount();
+        if (resultCount > 0 && firstPageSize > 0) {
+            return (int) Math.max(pageCount, Math.min(Integer.MAX_VALUE, (resultCount + firstPageSize - 1) / firstPageSize));
+        }
+        reportNote(parentUUID, format("Общее количество товаров не показано, проверяются видимые страницы 1-%d", pageCount), Status.BROKEN);
+        return pageCount;
+    }
+
+    /**
+     * Добавление в отчёт шага с итогом проверки.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param parentUUID идентификатор родительского шага
+     * @param name       текст итога
+     * @param status     статус шага
+     */
+    private void reportNote(String parentUUID, String name, Status status) {
+        String uuid = UUID.randomUUID().toString();
+        Allure.getLifecycle().startStep(parentUUID, uuid, new StepResult().setName(name).setStatus(status));
+        Allure.getLifecycle().stopStep(uuid);
+    }
+
+    /**
+     * Проверка соответствия всех товаров на всех страницах скомпилированному выражению
+     * с распределением страниц между несколькими сессиями браузера.
+     * <p>
+     * Первая страница проверяется в текущей сессии, по ней определяется количество страниц
+     * {@link #estimatePageCount(String, int)}. Каждая дополнительная сессия получает товары своего диапазона
+     * остальных страниц, проверка и отчёт выполняются в текущем потоке в порядке номеров страниц.
+     * Страницы, не полученные до истечения
+     * timeout.next_page_loop минут, перечисляются в отчёте.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filter скомпилированное выражение над фильтрами
+     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     * @see BrowserPool
+     */
+    private CatalogListPage checkAllProductsParallel(CompiledFilter filter) {
+        final String parentUUID = currentStepUuid();
+        final String listingUrl = webdriver().driver().getCurrentFrameUrl();
+        final long deadline = deadline();
+        List<Product> firstPage = collectProducts();
+        final int pageCount = estimatePageCount(parentUUID, firstPage.size());
+
+        BrowserPool pool = new BrowserPool(Math.min(pageCount - 1, Properties.appProperties.getValidationPoolSize()));
+        int rangeSize = Math.max(1, (pageCount - 1 + pool.getSize() - 1) / pool.getSize());
+        List<int[]> ranges = new ArrayList<>();
+        for (int first = 2; first <= pageCount; first += rangeSize) {
+            ranges.add(new int[]{first, Math.min(pageCount, first + rangeSize - 1)});
+        }
+
+        List<Map<Integer, List<Product>>> results = pool.map(ranges, range -> {
+            Map<Integer, List<Product>> pages = new TreeMap<>();
+            for (int pageNumber = range[0]; pageNumber <= range[1] && System.nanoTime() - deadline < 0; pageNumber++) {
+                open(pageUrl(listingUrl, pageNumber));
+                pages.put(pageNumber, page(CatalogListPage.class).collectProducts());
+            }
+            return pages;
+        });
+
+        Map<Integer, List<Product>> pages = new TreeMap<>();
+        pages.put(1, firstPage);
+        results.forEach(pages::putAll);
+        pages.forEach((pageNumber, products) -> reportPage(parentUUID, pageNumber, products, filter));
+        List<Integer> skipped = new ArrayList<>();
+        for (int pageNumber = 1; pageNumber <= pageCount; pageNumber++) {
+            if (!pages.containsKey(pageNumber)) skipped.add(pageNumber);
+        }
+        if (!skipped.isEmpty()) {
+            reportNote(parentUUID, format("Проверка остановлена по истечении %d мин., не проверены страницы %s",
+                    Properties.appProperties.getTimeoutNextPageLoop(), skipped), Status.BROKEN);
+        }
+        return this;
+    }
+
+    /**
+     * Получение момента истечения времени проверки страниц по {@link System#nanoTime()}.
+     * <p>
+     * Используются монотонные часы, чтобы момент не зависел от перевода часов и перехода через полночь.
+     * Истечение проверяется как {@code System.nanoTime() - deadline >= 0}.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return момент истечения времени timeout.next_page_loop в нс
+     */
+    private static long deadline() {
+        return System.nanoTime() + TimeUnit.MINUTES.toNanos(Properties.appProperties.getTimeoutNextPageLoop());
+    }
+
+    /**
+     * Проверка соответствия всех товаров на всех страницах скомпилированному выражению
+     * по HTML страниц, загруженных без браузера.
+     * <p>
+     * Браузер нужен только для получения ссылки на первую страницу с установленными фильтрами, общего количества
+     * товаров, cookies и User-Agent сессии. Первая страница загружается через {@link ListingCrawler} отдельно,
+     * по количеству товаров на ней определяется количество страниц {@link #estimatePageCount(String, int)},
+     * остальные страницы загружаются одновременно,
+     * проверяются товары, которые сервер отдаёт в HTML страницы. Если страница не получена или в ней нет
+     * товаров, например вместо результатов поиска пришла страница проверки на робота, проверка завершается ошибкой.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param filter скомпилированное выражение над фильтрами
+     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     * @see ListingCrawler
+     */
+    private CatalogListPage checkAllProductsHttp(CompiledFilter filter) {
+        final String parentUUID = currentStepUuid();
+        pageLoadWait();
+        final String listingUrl = webdriver().driver().getCurrentFrameUrl();
+        final long deadline = deadline();
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("User-Agent", executeJavaScript("return navigator.userAgent;"));
+        String cookies = webdriver().object().manage().getCookies().stream()
+                .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                .collect(Collectors.joining("; "));
+        if (!cookies.isEmpty()) {
+            headers.put("Cookie", cookies);
+        }
+
+        ListingCrawler crawler = new ListingCrawler(headers);
+        List<CompletableFuture<List<Product>>> results = new ArrayList<>(crawler.fetch(List.of(URI.create(pageUrl(listingUrl, 1)))));
+        int pageCount = 1;
+        for (int i = 0; i < results.size(); i++) {
+            List<Product> products;
+            try {
+                long timeout = Math.max(0, deadline - System.nanoTime());
+                products = results.get(i).get(timeout, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                results.forEach(result -> result.cancel(true));
+                reportNote(parentUUID, format("Проверка остановлена по истечении %d мин. после страницы №%d",
+                        Properties.appProperties.getTimeoutNextPageLoop(), i), Status.BROKEN);
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.forEach(result -> result.cancel(true));
+                reportNote(parentUUID, format("Проверка прервана после страницы №%d", i), Status.BROKEN);
+                break;
+            } catch (ExecutionException e) {
+                failPage(parentUUID, results, format("Страница №%d не получена: %s", i + 1, e.getCause().getMessage()));
+                break;
+            }
+            if (products.isEmpty()) {
+                failPage(parentUUID, results, format("Страница №%d из %d получена без товаров, возможно это страница проверки на робота",
+                        i + 1, pageCount));
+            }
+            if (i == 0) {
+                pageCount = estimatePageCount(parentUUID, products.size());
+                List<URI> pages = new ArrayList<>();
+                for (int pageNumber = 2; pageNumber <= pageCount; pageNumber++) {
+                    pages.add(URI.create(pageUrl(listingUrl, pageNumber)));
+                }
+                results.addAll(crawler.fetch(pages));
+            }
+            reportPage(parentUUID, i + 1, products, filter);
+        }
+        return this;
+    }
+
+    /**
+     * Отражение в отчёте страницы, которую не удалось проверить, с отменой загрузки остальных страниц
+     * и завершением проверки ошибкой.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param parentUUID идентификатор родительского шага
+     * @param results    загрузки страниц
+     * @param message    причина
+     */
+    private void failPage(String parentUUID, List<CompletableFuture<List<Product>>> results, String message) {
+        results.forEach(result -> result.cancel(true));
+        reportNote(parentUUID, message, Status.FAILED);
+        Assertions.fail(message);
+    }
+
+    /**
+     * Получение идентификатора текущего шага потока, к которому прикрепляются шаги проверки товаров.
+     * <p>
+     * Контекст шагов Allure хранится отдельно для каждого потока, поэтому идентификатор
+     * запоминается в потоке теста до передачи работы другим потокам.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @return идентификатор текущего шага или теста
+     */
+    private static String currentStepUuid() {
+        Optional<String> parent = Allure.getLifecycle().getCurrentTestCaseOrStep();
+        Assertions.assertTrue(parent.isPresent(),
+                format("В потоке '%s' нет выполняющегося теста Allure", Thread.currentThread().getName()));
+        return parent.get();
+    }
+
+    /**
+     * Проверка товаров страницы с отражением в отчёте одним шагом на страницу.
+     * <p>
+     * В режиме {@link ReportMode#STEPS} для каждого товара создаётся отдельный шаг.
+     * В режиме {@link ReportMode#AGGREGATED} результаты всех товаров записываются в таблицу,
+     * прикладываемую к шагу страницы, а отдельные шаги создаются только для несоответствующих товаров.
+     * Каждый товар проверяется один раз, шаги создаются для всех несоответствующих товаров страницы,
+     * после чего проверка завершается ошибкой, если такие товары есть.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param parentUUID идентификатор родительского шага
+     * @param pageNumber номер страницы
+     * @param products   товары страницы
+     * @param filter     скомпилированное выражение над фильтрами
+     */
+    private void reportPage(String parentUUID, int pageNumber, List<Product> products, CompiledFilter filter) {
+        ProductVerdictTable table = new ProductVerdictTable();
+        if (Properties.appProperties.getReportMode() == ReportMode.STEPS) {
+            String uuid = UUID.randomUUID().toString();
+            Allure.getLifecycle().startStep(parentUUID, uuid, new StepResult()
+                    .setName(format("Страница №%d", pageNumber))
+                    .setStatus(Status.PASSED)
+            );
+            try {
+                for (int i = 0; i < products.size(); i++) {
+                    MatchReport report = filter.evaluate(products.get(i));
+                    table.add(pageNumber, i + 1, products.get(i), report);
+                    checkProduct(uuid, products.get(i), report);
+                }
+                if (!table.getFailures().isEmpty()) {
+                    Allure.getLifecycle().updateStep(uuid, step -> step.setStatus(Status.FAILED));
+                }
+            } finally {
+                Allure.getLifecycle().stopStep(uuid);
+            }
+            assertPageMatched(pageNumber, table);
+            return;
+        }
+
+        for (int i = 0; i < products.size(); i++) {
+            table.add(pageNumber, i + 1, products.get(i), filter.evaluate(products.get(i)));
+        }
+        reportVerdicts(parentUUID, pageNumber, products, table);
+    }
+
+    /**
+     * Отражение в отчёте одним шагом результатов проверки товаров страницы.
+     * <p>
+     * Для каждого несоответствующего товара создаётся шаг по результату проверки из таблицы,
+     * после чего проверка завершается ошибкой, если такие товары есть.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param parentUUID идентификатор родительского шага
+     * @param pageNumber номер страницы
+     * @param products   товары страницы
+     * @param table      результаты проверки товаров страницы
+     */
+    private void reportVerdicts(String parentUUID, int pageNumber, List<Product> products, ProductVerdictTable table) {
+        String uuid = UUID.randomUUID().toString();
+        ProductBatch batch = ProductBatch.of(products);
+        Allure.getLifecycle().startStep(parentUUID, uuid, new StepResult()
+                .setName(format("Страница №%d: проверено товаров %d, несоответствий %d, цены от %s до %s",
+                        pageNumber, table.size(), table.getFailures().size(),
+                        priceText(batch.min(ProductBatch.PRICE)), priceText(batch.max(ProductBatch.PRICE))))
+                .setStatus(table.getFailures().isEmpty() ? Status.PASSED : Status.FAILED)
+        );
+        try {
+            Allure.addAttachment(format("Результаты проверки страницы №%d", pageNumber), "text/csv", table.toCsv(), ".csv");
+            table.forEachFailure((product, report) -> checkProduct(uuid, product, report));
+        } finally {
+            Allure.getLifecycle().stopStep(uuid);
+        }
+        assertPageMatched(pageNumber, table);
+    }
+
+    /**
+     * Проверка что все товары страницы соответствуют фильтрам.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param pageNumber номер страницы
+     * @param table      результаты проверки товаров страницы
+     */
+    private static void assertPageMatched(int pageNumber, ProductVerdictTable table) {
+        List<Product> failures = table.getFailures();
+        Assertions.assertTrue(failures.isEmpty(), format("На странице №%d товаров, не соответствующих фильтрам: %d\n%s",
+                pageNumber, failures.size(), failures.stream().map(Product::getHeader).collect(Collectors.joining("\n"))));
+    }
+
+    /**
+     * Получение текстового представления цены для отчёта.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param price цена
+     * @return цена или {@literal -} если цена не указана
+     */
+    private static String priceText(int price) {
+        return price == Product.NO_PRICE ? "-" : Integer.toString(price);
+    }
+
+    /**
+     * Отражение в отчёте результата проверки товара отдельным шагом.
+     * <p>
+     * Шаги проверки создаются только для причин несоответствия, каждая причина отражается в отчёте один раз:
+     * фильтр - шагом проверки фильтра, часть выражения с отрицанием или ИЛИ - шагом проверки условия. Ошибка несоответствия не выбрасывается, шаг товара отмечается как проваленный.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param parentUUID идентификатор родительского шага
+     * @param product    проверенный товар
+     * @param report     {@link MatchReport} результат проверки товара
+     */
+    private void checkProduct(String parentUUID, Product product, MatchReport report) {
+        UUID uuid = UUID.randomUUID();
+        Allure.getLifecycle().startStep(parentUUID, uuid.toString(), new StepResult()
+                .setName(format("Тестируем %s", product.getHeader()))
+                .setParameters(List.of(new Parameter().setName("product").setValue(product.getHeader())))
+                .setStatus(report.isMatched() ? Status.PASSED : Status.FAILED)
+        );
+        try {
+            for (Filter mismatch : report.getMismatchedFilters()) {
+                reportMismatch(() -> isMatchProductFilter(product, mismatch));
+            }
+            for (CompiledFilter condition : report.getMismatchedConditions()) {
+                reportMismatch(() -> isMatchProductExpression(product, condition));
+            }
+        } finally {
+            Allure.getLifecycle().stopStep(uuid.toString());
+        }
+    }
+
+    /**
+     * Выполнение шага проверки причины несоответствия, ошибка которого уже отражена в шаге отчёта.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param check шаг проверки
+     */
+    private static void reportMismatch(Runnable check) {
+        try {
+            check.run();
+        } catch (AssertionError e) {
+            // несоответствие отражено в шаге, ошибка проверки страницы выбрасывается после всех товаров
+        }
+    }
+
+    /**
+     * Проверка соответствия товара логическому выражению над фильтрами
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param product проверяемый продукт
+     * @param filter  скомпилированное выражение
+     * @return {@link CatalogListPage} возврещает экземпляр текущей страницы
+     */
+    @Step("Проверяем что товар соответствует условию {filter.expression}")
+    public CatalogListPage isMatchProductExpression(Product product, CompiledFilter filter) {
+        Assertions.assertTrue(filter.test(product),
+                format("Товар '%s' не соответствует условию %s\n", product.getHeader(), filter.getExpression()));
         return this;
     }
 
@@ -485,16 +1678,16 @@ public class CatalogListPage {
     @Step("Проверяем наличие '{product.header}' на странице")
     public CatalogListPage containsOnPage(Product product) {
         ElementsCollection productOnPage = getProductOnPage();
-        productOnPage
+        AdaptiveTimeouts.await(LOCATOR_PRODUCT_ITEM + " anyMatch", timeout -> productOnPage
                 .shouldHave(
                         anyMatch("Ожидали наличие товара с наименованием '"
                                         + product.getHeader()
                                         + "', товар отсутствует на странице.",
-                                webElement -> webElement.getText().equals(product.getHeader())), ofSeconds(20))
+                                webElement -> webElement.getText().equals(product.getHeader())), timeout)
                 .filterBy(text(product.getHeader()))
-                .shouldBe(sizeGreaterThanOrEqual(1), ofSeconds(20))
+                .shouldBe(sizeGreaterThanOrEqual(1), timeout)
                 .first()
-                .scrollIntoView(true);
+                .scrollIntoView(true));
         return this;
     }
 }
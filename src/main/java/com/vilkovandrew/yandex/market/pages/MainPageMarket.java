@@ -2,11 +2,18 @@ package com.vilkovandrew.yandex.market.pages;
 
 import com.codeborne.selenide.ElementsCollection;
 import com.codeborne.selenide.SelenideElement;
+import com.vilkovandrew.helpers.AdaptiveTimeouts;
 import com.vilkovandrew.helpers.Assertions;
+import com.vilkovandrew.helpers.Properties;
+import com.vilkovandrew.helpers.Scripts;
+import com.vilkovandrew.helpers.Waits;
+import com.vilkovandrew.yandex.market.helpers.CatalogMap;
 import io.qameta.allure.Step;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
+import java.util.Map;
 import java.util.Optional;
 
 import static com.codeborne.selenide.CollectionCondition.anyMatch;
@@ -16,6 +23,11 @@ import static java.time.Duration.ofSeconds;
 
 /**
  * Класс представляющий Page Object для главной страницы 'Яндекс Маркет'.
+ * <p>
+ * Переход в раздел каталога выполняется по ссылке из {@link CatalogMap}, если она известна.
+ * Каталог открывается и курсор наводится на категорию только когда ссылки нет или она устарела,
+ * при этом ссылки на разделы категории запоминаются.
+ * </p>
  *
  * @author Vilkov Andrew
  */
@@ -37,33 +49,78 @@ public class MainPageMarket {
      */
     private static final By LOCATOR_TAB_LIST_CATEGORY = By.xpath("//li[@role=\"tab\"]/a");
 
+    /**
+     * XPath разделов категории каталога.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final String XPATH_ITEMS = "//div[@role='tabpanel']/div//ul[@data-autotest-id='subItems']/li";
+
     /**
      * Локатор разделов категории каталога.
      * <p>
      * Автор: Вилков Андрей
      * </p>
      */
-    private static final By LOCATOR_ITEMS = By.xpath("//div[@role='tabpanel']/div//ul[@data-autotest-id='subItems']/li");
+    private static final By LOCATOR_ITEMS = By.xpath(XPATH_ITEMS);
+
+    /**
+     * Время ожидания открытия раздела по ссылке из карты каталога в секундах.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final int CATALOG_MAP_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Ссылка на страницу, с которой открывается каталог
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private String startUrl;
+
+    /**
+     * Имя категории, выбранной в каталоге
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private String sectionName;
+
+    /**
+     * Признак того, что курсор наведён на выбранную категорию в открытом каталоге
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private boolean sectionHovered;
 
     /**
-     * Открытие каталога, если он еще не открыт
+     * Начало перехода по каталогу с текущей страницы
+     * <p>
+     * Каталог здесь не открывается: он открывается в шаге, которому нужен, при наведении курсора на категорию
+     * или при переходе в раздел, если ссылки на разделы категории нет в карте каталога.
+     * Текущая страница запоминается, чтобы вернуться на неё, если ссылка из карты устарела.
+     * </p>
      * <p>
      * Автор: Вилков Андрей
      * </p>
      */
-    @Step("Открытие каталога")
+    @Step("Начало перехода по каталогу")
     public MainPageMarket openCatalog() {
-        SelenideElement catalogButton = $(LOCATOR_CATALOG_BUTTON);
-        boolean isExpanded = Boolean.getBoolean(catalogButton.getDomAttribute("aria-expanded"));
-        if (!isExpanded) {
-            catalogButton.click();
-        }
+        startUrl = webdriver().driver().getCurrentFrameUrl();
+        sectionHovered = false;
         return this;
     }
 
     /**
      * Наведение курсора на категорию товара в каталоге
      * <p>
+     * Если ссылки на разделы категории есть в карте каталога, наведение откладывается до перехода в раздел.
+     * </p>
+     * <p>
      * Автор: Вилков Андрей
      * </p>
      *
@@ -71,8 +128,66 @@ public class MainPageMarket {
      */
     @Step("Наведение курсора на раздел {sectionName}")
     public MainPageMarket moveCursorToSection(String sectionName) {
-        ElementsCollection categories = $$(LOCATOR_TAB_LIST_CATEGORY).shouldBe(anyMatch(
-                format("Ищем раздел '%s' в каталоге", sectionName), e -> e.getText().equalsIgnoreCase(sectionName)), ofSeconds(20));
+        this.sectionName = sectionName;
+        sectionHovered = false;
+        if (!CatalogMap.contains(sectionName)) {
+            hoverSection();
+        }
+        return this;
+    }
+
+    /**
+     * Открытие раздела из категории каталога
+     * <p>
+     * Раздел открывается по ссылке из карты каталога. Если ссылки нет или по ней открывается другая страница,
+     * ссылки категории удаляются из карты, и раздел открывается через каталог.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param itemName имя раздела в категории каталога
+     */
+    @Step("Переходим в раздел {itemName}")
+    public CatalogListPage openSectionItem(String itemName) {
+        Optional<String> url = sectionName == null ? Optional.empty() : CatalogMap.find(sectionName, itemName);
+        if (url.isPresent()) {
+            open(url.get());
+            if (titleWait(itemName)) {
+                return page(CatalogListPage.class);
+            }
+            CatalogMap.invalidate(sectionName);
+            open(startUrl != null ? startUrl : Properties.appProperties.getYaMarketUrl());
+            sectionHovered = false;
+        }
+        if (!sectionHovered) {
+            hoverSection();
+        }
+        clickItem(itemName);
+        if (Waits.isEventDriven()) {
+            Waits.networkIdle();
+        }
+        Wait().until(ExpectedConditions.titleContains(itemName));
+        return page(CatalogListPage.class);
+    }
+
+    /**
+     * Открытие каталога и наведение курсора на выбранную категорию.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private void hoverSection() {
+        Assertions.assertTrue(sectionName != null, "Категория каталога не выбрана");
+        SelenideElement catalogButton = $(LOCATOR_CATALOG_BUTTON);
+        boolean isExpanded = Boolean.getBoolean(catalogButton.getDomAttribute("aria-expanded"));
+        if (!isExpanded) {
+            catalogButton.click();
+        }
+
+        ElementsCollection categories = AdaptiveTimeouts.await(LOCATOR_TAB_LIST_CATEGORY + " anyMatch",
+                timeout -> $$(LOCATOR_TAB_LIST_CATEGORY).shouldBe(anyMatch(
+                        format("Ищем раздел '%s' в каталоге", sectionName), e -> e.getText().equalsIgnoreCase(sectionName)), timeout));
         Optional<SelenideElement> itemCategory = categories.asDynamicIterable().stream().filter(e -> e.getText().equalsIgnoreCase(sectionName)).findAny();
 
         Assertions.assertTrue(itemCategory.isPresent(),
@@ -80,19 +195,18 @@ public class MainPageMarket {
 
         SelenideElement sectionItem = itemCategory.get();
         actions().moveToElement(sectionItem).pause(5).perform();
-        return this;
+        sectionHovered = true;
     }
 
     /**
-     * Открытие раздела из категории каталога
+     * Нажатие на раздел выбранной категории в открытом каталоге с сохранением ссылок на разделы категории.
      * <p>
      * Автор: Вилков Андрей
      * </p>
      *
      * @param itemName имя раздела в категории каталога
      */
-    @Step("Переходим в раздел {itemName}")
-    public CatalogListPage openSectionItem(String itemName) {
+    private void clickItem(String itemName) {
         ElementsCollection itemList = $$(LOCATOR_ITEMS);
         Optional<SelenideElement> item = itemList.asDynamicIterable().stream()
                 .filter(e -> itemName.equalsIgnoreCase(e.getText()))
@@ -101,13 +215,37 @@ public class MainPageMarket {
         Assertions.assertTrue(item.isPresent(),
                 format("Раздел \"%s\" не найден в текущей категории", itemName));
 
+        Map<String, String> links = executeJavaScript(Scripts.get("catalog-items"), XPATH_ITEMS);
+        if (links != null && !links.isEmpty()) {
+            CatalogMap.put(sectionName, links);
+        }
+
         SelenideElement itemElement = item.get();
         actions()
                 .moveByOffset(itemElement.getLocation().getX(), itemElement.getLocation().getY())
                 .moveToElement(itemElement)
                 .click()
                 .perform();
-        Wait().until(ExpectedConditions.titleContains(itemName));
-        return page(CatalogListPage.class);
+    }
+
+    /**
+     * Ожидание открытия страницы раздела по ссылке из карты каталога.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param itemName имя раздела в категории каталога
+     * @return true если заголовок страницы содержит имя раздела
+     */
+    private boolean titleWait(String itemName) {
+        if (Waits.isEventDriven()) {
+            Waits.networkIdle();
+        }
+        try {
+            Wait().withTimeout(ofSeconds(CATALOG_MAP_TIMEOUT_SECONDS)).until(ExpectedConditions.titleContains(itemName));
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
     }
 }
@@ -0,0 +1,16 @@
+/*
+ * Получение ссылок на разделы категории, открытой во всплывающем окне каталога.
+ * arguments[0] - XPath пунктов разделов категории
+ * Результат - объект {имя раздела: ссылка}.
+ */
+var items = document.evaluate(arguments[0], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+var links = {};
+for (var i = 0; i < items.snapshotLength; i++) {
+    var item = items.snapshotItem(i);
+    var link = item.querySelector('a[href]');
+    var name = item.innerText.trim();
+    if (link && name && !(name in links)) {
+        links[name] = link.href;
+    }
+}
+return links;
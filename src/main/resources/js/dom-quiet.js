@@ -0,0 +1,37 @@
+/*
+ * Ожидание отсутствия изменений DOM в течение заданного времени.
+ * arguments[0] - корневой элемент, изменения в котором отслеживаются, null - весь документ
+ * arguments[1] - время без изменений в мс
+ * arguments[2] - максимальное время ожидания в мс
+ * Результат - true если изменения прекратились, false если истекло время ожидания.
+ */
+var root = arguments[0] || document.documentElement;
+var quietMillis = arguments[1];
+var timeoutMillis = arguments[2];
+var done = arguments[arguments.length - 1];
+
+var finished = false;
+var quietTimer = null;
+var observer = new MutationObserver(armQuietTimer);
+var deadline = setTimeout(function () {
+    finish(false);
+}, timeoutMillis);
+
+function armQuietTimer() {
+    clearTimeout(quietTimer);
+    quietTimer = setTimeout(function () {
+        finish(true);
+    }, quietMillis);
+}
+
+function finish(quiet) {
+    if (finished) return;
+    finished = true;
+    observer.disconnect();
+    clearTimeout(quietTimer);
+    clearTimeout(deadline);
+    done(quiet);
+}
+
+observer.observe(root, {childList: true, subtree: true, attributes: true, characterData: true});
+armQuietTimer();
@@ -0,0 +1,17 @@
+/*
+ * Получение заголовка, ссылки и цены всех товаров на странице за один вызов.
+ * arguments[0] - XPath ссылок в заголовках товаров
+ * arguments[1] - XPath цены относительно ссылки
+ */
+var items = document.evaluate(arguments[0], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+var result = [];
+for (var i = 0; i < items.snapshotLength; i++) {
+    var link = items.snapshotItem(i);
+    var price = document.evaluate(arguments[1], link, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+    result.push({
+        header: link.innerText,
+        link: link.href,
+        price: price ? price.innerText : null
+    });
+}
+return result;
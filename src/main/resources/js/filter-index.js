@@ -0,0 +1,44 @@
+/*
+ * Получение описания всех блоков фильтров за один вызов.
+ * Название значения берётся из его элемента label, как при выборе значения щелчком,
+ * чтобы счётчики и пометки рядом со значением не попадали в название.
+ * arguments[0] - XPath блоков фильтров
+ * Результат - список блоков: идентификатор, заголовок, полный текст, тип и отображаемые значения.
+ */
+var blocks = document.evaluate(arguments[0], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+var result = [];
+for (var i = 0; i < blocks.snapshotLength; i++) {
+    var block = blocks.snapshotItem(i);
+    var text = block.innerText || block.textContent || '';
+    var lines = text.split('\n').map(function (line) {
+        return line.trim();
+    }).filter(function (line) {
+        return line.length > 0;
+    });
+    var type = null;
+    if (block.querySelector('[data-auto="filter-range-min"]')) {
+        type = 'RANGE';
+    } else if (block.querySelector('[data-filter-value-id]')) {
+        type = 'CHECKBOX';
+    }
+    var values = [];
+    var valueElements = block.querySelectorAll('[data-filter-value-id]');
+    for (var j = 0; j < valueElements.length; j++) {
+        var labelElement = valueElements[j].querySelector('label');
+        if (!labelElement) {
+            continue;
+        }
+        var label = (labelElement.innerText || labelElement.textContent || '').trim();
+        if (label.length > 0) {
+            values.push({id: valueElements[j].getAttribute('data-filter-value-id'), label: label});
+        }
+    }
+    result.push({
+        id: block.getAttribute('data-filter-id'),
+        name: lines.length > 0 ? lines[0] : '',
+        text: text,
+        type: type,
+        values: values
+    });
+}
+return result;
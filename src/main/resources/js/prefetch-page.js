@@ -0,0 +1,61 @@
+/*
+ * Предзагрузка страницы результатов поиска в именованной вкладке.
+ * Вкладка с заданным именем открывается или переиспользуется, после загрузки новой страницы
+ * её список товаров прокручивается до конца таймером текущей (активной) вкладки,
+ * так как таймеры фоновой вкладки браузер может замедлять.
+ * arguments[0] - ссылка на страницу
+ * arguments[1] - имя вкладки
+ * arguments[2] - XPath списка товаров
+ * arguments[3] - XPath ссылок в заголовках товаров
+ * arguments[4] - время без изменений списка в мс
+ * arguments[5] - максимальное время предзагрузки в мс
+ * Результат - true, если вкладка открыта.
+ */
+var url = arguments[0];
+var name = arguments[1];
+var listXpath = arguments[2];
+var itemXpath = arguments[3];
+var quietMillis = arguments[4];
+var timeoutMillis = arguments[5];
+
+var target = window.open(url, name);
+if (!target) {
+    return false;
+}
+try {
+    // документ, показанный до перехода, помечается, чтобы не прокручивать его вместо новой страницы
+    target.document.__prefetchStale = true;
+} catch (e) {
+}
+
+var start = Date.now();
+var last = -1;
+var changedAt = 0;
+var timer = setInterval(function () {
+    try {
+        if (target.closed || Date.now() - start > timeoutMillis) {
+            clearInterval(timer);
+            return;
+        }
+        var doc = target.document;
+        if (doc.__prefetchStale || doc.readyState === 'loading') {
+            return;
+        }
+        var list = doc.evaluate(listXpath, doc, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+        if (!list) {
+            return;
+        }
+        var count = doc.evaluate(itemXpath, doc, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;
+        if (count !== last) {
+            last = count;
+            changedAt = Date.now();
+        } else if (parseFloat(list.style.paddingBottom || '0') === 0 && Date.now() - changedAt >= quietMillis) {
+            clearInterval(timer);
+            return;
+        }
+        target.scrollTo(0, doc.documentElement.scrollHeight);
+    } catch (e) {
+        clearInterval(timer);
+    }
+}, 100);
+return true;
@@ -0,0 +1,69 @@
+/*
+ * Прокрутка виртуализированного списка товаров до конца за один асинхронный вызов.
+ * Скрипт завершается, когда список перестаёт расти: нижний отступ списка равен нулю
+ * и в течение заданного времени в списке не было изменений.
+ * arguments[0] - XPath списка товаров
+ * arguments[1] - XPath ссылок в заголовках товаров
+ * arguments[2] - время без изменений списка в мс
+ * arguments[3] - максимальное время прокрутки в мс
+ * Результат - {count: количество отрисованных товаров, truncated: true, если прокрутка остановлена
+ * по истечении максимального времени и список мог быть прокручен не до конца}.
+ */
+var listXpath = arguments[0];
+var itemXpath = arguments[1];
+var quietMillis = arguments[2];
+var timeoutMillis = arguments[3];
+var done = arguments[arguments.length - 1];
+
+function count() {
+    return document.evaluate(itemXpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;
+}
+
+var list = document.evaluate(listXpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+if (!list) {
+    done({count: count(), truncated: false});
+    return;
+}
+
+var finished = false;
+var quietTimer = null;
+var observer = new MutationObserver(function () {
+    scroll();
+    armQuietTimer();
+});
+var deadline = setTimeout(function () {
+    finish(true);
+}, timeoutMillis);
+
+function paddingBottom() {
+    return parseFloat(getComputedStyle(list).paddingBottom) || 0;
+}
+
+function scroll() {
+    window.scrollBy(0, list.getBoundingClientRect().bottom - window.innerHeight);
+}
+
+function armQuietTimer() {
+    clearTimeout(quietTimer);
+    quietTimer = setTimeout(function () {
+        if (paddingBottom() > 0) {
+            scroll();
+            armQuietTimer();
+        } else {
+            finish(false);
+        }
+    }, quietMillis);
+}
+
+function finish(truncated) {
+    if (finished) return;
+    finished = true;
+    observer.disconnect();
+    clearTimeout(quietTimer);
+    clearTimeout(deadline);
+    done({count: count(), truncated: truncated});
+}
+
+observer.observe(list, {childList: true, subtree: true, attributes: true, attributeFilter: ['style']});
+scroll();
+armQuietTimer();
@@ -0,0 +1,56 @@
+/*
+ * Получение товаров, отрисованных после предыдущего вызова, и прокрутка списка дальше.
+ * Если очередь пуста, скрипт дожидается отрисовки новых товаров не дольше заданного времени.
+ * Когда список прокручен до конца или прокрутка прерывается, вместе с очередью отдаются товары,
+ * цена которых так и не была отрисована.
+ * arguments[0] - XPath списка товаров
+ * arguments[1] - время ожидания новых товаров в мс
+ * arguments[2] - true чтобы прервать прокрутку и забрать все оставшиеся товары
+ * Результат - {items: данные товаров, done: true если список прокручен до конца и новых товаров нет}.
+ */
+var listXpath = arguments[0];
+var quietMillis = arguments[1];
+var flush = arguments[2];
+var done = arguments[arguments.length - 1];
+var stream = window.__productStream;
+var list = document.evaluate(listXpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+
+function respond(finished) {
+    var items = [];
+    if (stream) {
+        stream.waiter = null;
+        items = stream.queue.splice(0);
+        if (finished) {
+            for (var key in stream.pending) {
+                stream.seen[key] = true;
+                items.push(stream.pending[key]);
+            }
+            stream.pending = {};
+        }
+    }
+    done({items: items, done: finished});
+}
+
+function atEnd() {
+    var padding = parseFloat(getComputedStyle(list).paddingBottom) || 0;
+    return padding === 0 && list.getBoundingClientRect().bottom <= window.innerHeight + 1;
+}
+
+if (!stream || !list || flush) {
+    respond(true);
+    return;
+}
+
+var end = atEnd();
+window.scrollBy(0, Math.max(0, Math.min(window.innerHeight, list.getBoundingClientRect().bottom - window.innerHeight)));
+if (stream.queue.length > 0) {
+    respond(false);
+    return;
+}
+var timer = setTimeout(function () {
+    respond(end && stream.queue.length === 0);
+}, quietMillis);
+stream.waiter = function () {
+    clearTimeout(timer);
+    respond(false);
+};
@@ -0,0 +1,52 @@
+/*
+ * Подключение наблюдателя, который складывает данные каждого отрисованного товара в очередь один раз.
+ * Товар попадает в очередь, когда отрисована его цена; до этого он хранится среди ожидающих,
+ * чтобы цена, подгружаемая после заголовка, не терялась. Ожидающие товары без цены отдаются
+ * в конце прокрутки. Очередь забирается скриптом stream-products-next.js во время прокрутки.
+ * arguments[0] - XPath списка товаров
+ * arguments[1] - XPath ссылок в заголовках товаров
+ * arguments[2] - XPath цены относительно ссылки
+ * Результат - количество товаров в очереди после подключения.
+ */
+var listXpath = arguments[0];
+var itemXpath = arguments[1];
+var priceXpath = arguments[2];
+
+if (window.__productStream) {
+    window.__productStream.observer.disconnect();
+}
+var stream = {queue: [], seen: {}, pending: {}, waiter: null, observer: null};
+window.__productStream = stream;
+
+function scan() {
+    var items = document.evaluate(itemXpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+    for (var i = 0; i < items.snapshotLength; i++) {
+        var link = items.snapshotItem(i);
+        var key = link.href + '\n' + link.innerText;
+        if (stream.seen[key]) continue;
+        var price = document.evaluate(priceXpath, link, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+        var item = {
+            header: link.innerText,
+            link: link.href,
+            price: price ? price.innerText : null
+        };
+        if (!price) {
+            stream.pending[key] = item;
+            continue;
+        }
+        stream.seen[key] = true;
+        delete stream.pending[key];
+        stream.queue.push(item);
+    }
+    if (stream.queue.length > 0 && stream.waiter) {
+        var waiter = stream.waiter;
+        stream.waiter = null;
+        waiter();
+    }
+}
+
+var list = document.evaluate(listXpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+stream.observer = new MutationObserver(scan);
+stream.observer.observe(list || document.body, {childList: true, subtree: true});
+scan();
+return stream.queue.length;
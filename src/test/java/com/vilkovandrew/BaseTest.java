@@ -1,15 +1,16 @@
 package com.vilkovandrew;
 
-import com.codeborne.selenide.Configuration;
+import com.vilkovandrew.fixtures.Fixtures;
+import com.vilkovandrew.helpers.DriverSession;
+import com.vilkovandrew.helpers.ResourceBlocker;
+import com.vilkovandrew.helpers.SessionLifecycle;
+import com.vilkovandrew.listeners.CommandAccountingListener;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
-import org.openqa.selenium.PageLoadStrategy;
-import org.openqa.selenium.chrome.ChromeOptions;
-
-import java.time.Duration;
-
-import static com.codeborne.selenide.Selenide.open;
-import static com.codeborne.selenide.Selenide.webdriver;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.function.Executable;
 
 /**
  * Базовый класс для тестов.
@@ -18,42 +19,130 @@ import static com.codeborne.selenide.Selenide.webdriver;
  */
 public class BaseTest {
     /**
-     * Конфигурирование драйвера перед тестами.
+     * Подготовка к тесту перед каждым тестовым методом.
+     * <p>
+     * Для фабрик тестов {@link TestFactory} метод выполняется один раз вокруг всей фабрики,
+     * поэтому фабрика оборачивает каждый динамический тест в {@link #eachTest(Executable)}, а здесь подготовка пропускается.
+     * </p>
      *
      * <p>
      * Автор: Вилков Андрей
      * </p>
+     *
+     * @param testInfo сведения о тестовом методе
      */
     @BeforeEach
-    void beforeTest() {
-
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments(
-                "--remote-allow-origins=*",
-                "--incognito",
-                "--disable-blink-features=AutomationControlled",
-                "--no-sandbox",
-                "--disable-dev-shm-usage",
-                "--disable-infobars"
-        );
-
-        options.addArguments("user-agent=\"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/113.0.0.0 Safari/537.36\"");
-        options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
-        options.setPageLoadStrategy(PageLoadStrategy.NORMAL);
-        options.setPageLoadTimeout(Duration.ofSeconds(120));
-        Configuration.browserCapabilities = options;
-        open();
-        webdriver().object().manage().window().maximize();
+    void beforeTest(TestInfo testInfo) {
+        if (!isTestFactory(testInfo)) {
+            setUp();
+        }
     }
 
     /**
-     * Закрытие драйвера после тестов.
+     * Завершение теста после каждого тестового метода, кроме фабрик тестов.
      *
      * <p>
      * Автор: Вилков Андрей
      * </p>
+     *
+     * @param testInfo сведения о тестовом методе
+     * @see #beforeTest(TestInfo)
      */
     @AfterEach
-    void afterTest() {
+    void afterTest(TestInfo testInfo) {
+        if (!isTestFactory(testInfo)) {
+            tearDown();
+        }
+    }
+
+    /**
+     * Оборачивание динамического теста подготовкой и завершением, как у обычного теста.
+     * <p>
+     * Завершение выполняется и при ошибке теста, ошибка завершения в этом случае добавляется к ошибке теста.
+     * </p>
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param body тест
+     * @return тест с подготовкой и завершением
+     */
+    protected static Executable eachTest(Executable body) {
+        return () -> {
+            Throwable failure = null;
+            try {
+                setUp();
+                body.execute();
+            } catch (Throwable e) {
+                failure = e;
+            }
+            try {
+                tearDown();
+            } catch (Throwable e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        };
+    }
+
+    /**
+     * Подготовка сессии браузера и записи или воспроизведения ответов сайта перед тестом.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @see DriverSession#acquire()
+     * @see Fixtures#beforeTest()
+     */
+    private static void setUp() {
+        DriverSession.acquire();
+        Fixtures.beforeTest();
+    }
+
+    /**
+     * Прикрепление отчёта о сетевых запросах, сохранение записанных ответов и закрытие драйвера после теста,
+     * если сессия открывается для каждого теста, и проверка количества команд WebDriver в шагах теста.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static void tearDown() {
+        ResourceBlocker.report();
+        Fixtures.afterTest();
+        DriverSession.release(SessionLifecycle.TEST);
+        CommandAccountingListener.assertWithinBudget();
+    }
+
+    /**
+     * Проверка что тестовый метод является фабрикой тестов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param testInfo сведения о тестовом методе
+     * @return true если метод отмечен {@link TestFactory}
+     */
+    private static boolean isTestFactory(TestInfo testInfo) {
+        return testInfo.getTestMethod().map(method -> method.isAnnotationPresent(TestFactory.class)).orElse(false);
+    }
+
+    /**
+     * Закрытие драйвера после тестов класса, если сессия открывается для каждого класса.
+     *
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @AfterAll
+    static void afterAllTests() {
+        DriverSession.release(SessionLifecycle.CLASS);
     }
 }
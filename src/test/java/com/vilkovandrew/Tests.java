@@ -1,17 +1,32 @@
 package com.vilkovandrew;
 
 import com.codeborne.selenide.junit5.ScreenShooterExtension;
-import com.vilkovandrew.yandex.market.helpers.Filter;
+import com.vilkovandrew.helpers.Cdp;
+import com.vilkovandrew.helpers.TestDataProvider;
+import com.vilkovandrew.yandex.market.helpers.Scenario;
+import com.vilkovandrew.yandex.market.helpers.ScenarioTree;
+import com.vilkovandrew.yandex.market.pages.CatalogListPage;
 import com.vilkovandrew.yandex.market.pages.MainPageMarket;
 import io.qameta.allure.Feature;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
 import org.junit.jupiter.api.extension.RegisterExtension;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.MethodSource;
+import org.openqa.selenium.Cookie;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static com.codeborne.selenide.Selenide.open;
+import static com.codeborne.selenide.Selenide.webdriver;
+import static java.lang.String.format;
 
 /**
  * Класс содержащий тесты.
@@ -26,26 +41,190 @@ public class Tests extends BaseTest {
     /**
      * Тест для Яндекс Маркета
      * <p>
+     * Сценарии из {@link TestDataProvider#scenarios()} группируются по общему началу навигации.
+     * Навигация по каталогу выполняется один раз для всех сценариев раздела: ссылка на полученную страницу
+     * и cookies запоминаются в {@link NavigationSnapshot}, и каждый сценарий устанавливает свои фильтры,
+     * открыв эту ссылку. Каждый тест дерева выполняется со своей подготовкой и завершением {@link BaseTest#eachTest}.
+     * При включённом параллельном выполнении тесты дерева выполняются одновременно: навигацию выполняет первый
+     * начавшийся тест раздела, остальные ждут её результата. Если навигация раздела не выполнена,
+     * сценарии раздела прерываются без проверки.
+     * </p>
+     * <p>
      * Автор: Вилков Андрей
      * </p>
      *
-     * @param url            URL который будет открыть
-     * @param catalogSection имя категории каталога
-     * @param itemSection    имя раздела категории
-     * @param filters        фильтры
-     * @see Filter
+     * @return дерево тестов по общим началам навигации
+     * @see ScenarioTree
      */
     @Feature("Проверка YandexMarket")
     @DisplayName("Проверка работы фильтров в каталоге")
-    @ParameterizedTest(name = "{index} {argumentsWithNames}")
-    @MethodSource("com.vilkovandrew.helpers.TestDataProvider#yaMarketProductTest")
-    void yaMarketProductTest(String url, String catalogSection, String itemSection, List<Filter> filters) {
-        open(url, MainPageMarket.class)
-                .openCatalog()
-                .moveCursorToSection(catalogSection)
-                .openSectionItem(itemSection)
-                .setFilters(filters)
-                .isAllProductsMatchFilters(filters);
+    @TestFactory
+    Stream<DynamicNode> yaMarketProductTest() {
+        return ScenarioTree.of(TestDataProvider.scenarios()).getChildren().stream().map(this::scenarioNode);
+    }
+
+    /**
+     * Построение узла дерева тестов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param node узел дерева сценариев
+     * @return контейнер дочерних узлов, а для раздела каталога - навигация и проверки фильтров
+     */
+    private DynamicNode scenarioNode(ScenarioTree node) {
+        List<DynamicNode> children = new ArrayList<>();
+        if (!node.getScenarios().isEmpty()) {
+            NavigationSnapshot snapshot = new NavigationSnapshot(node.getScenarios().get(0));
+            children.add(DynamicTest.dynamicTest(format("Навигация: %s", String.join(" > ", node.getPath().subList(1, node.getPath().size()))),
+                    eachTest(snapshot::navigate)));
+            for (Scenario scenario : node.getScenarios()) {
+                children.add(DynamicTest.dynamicTest(scenario.getFilters().toString(), eachTest(() -> {
+                    Assumptions.assumeTrue(snapshot.prepare(), format("Навигация '%s' не выполнена", node.getPath()));
+                    snapshot.restore();
+                    open(snapshot.getUrl(), CatalogListPage.class)
+                            .setFilters(scenario.getFilters())
+                            .isAllProductsMatchFilters(scenario.getFilters());
+                })));
+            }
+        }
+        node.getChildren().forEach(child -> children.add(scenarioNode(child)));
+        return DynamicContainer.dynamicContainer(node.getStep(), children);
     }
 
+    /**
+     * Результат навигации по каталогу, общий для сценариев раздела.
+     * <p>
+     * Навигация выполняется один раз в сессии первого обратившегося теста, остальные тесты раздела ждут её результата.
+     * Между тестами сессия сбрасывается {@link com.vilkovandrew.helpers.DriverSession#acquire()},
+     * поэтому вместе со ссылкой запоминаются cookies, которые восстанавливаются в сессии сценария.
+     * Локальное и сессионное хранилища страницы не восстанавливаются.
+     * </p>
+     *
+     * @author Вилков Андрей
+     */
+    private static final class NavigationSnapshot {
+        /**
+         * Сценарий, навигация которого выполняется
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final Scenario scenario;
+
+        /**
+         * Ссылка на страницу раздела, null пока навигация не выполнена
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private String url;
+
+        /**
+         * Cookies сессии после навигации
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private Set<Cookie> cookies = Set.of();
+
+        /**
+         * Ошибка навигации, null если навигация не выполнялась или выполнена
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private Throwable failure;
+
+        /**
+         * Конструктор класса {@link NavigationSnapshot}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param scenario сценарий, навигация которого общая для раздела
+         */
+        NavigationSnapshot(Scenario scenario) {
+            this.scenario = scenario;
+        }
+
+        /**
+         * Выполнение навигации, если она ещё не выполнялась, с ошибкой если навигация не выполнена.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @throws Throwable ошибка навигации
+         */
+        synchronized void navigate() throws Throwable {
+            if (!prepare()) {
+                throw failure;
+            }
+        }
+
+        /**
+         * Выполнение навигации в сессии текущего потока, если она ещё не выполнялась.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return true если навигация выполнена
+         */
+        synchronized boolean prepare() {
+            if (url == null && failure == null) {
+                try {
+                    open(scenario.getUrl(), MainPageMarket.class)
+                            .openCatalog()
+                            .moveCursorToSection(scenario.getCatalogSection())
+                            .openSectionItem(scenario.getItemSection());
+                    cookies = webdriver().object().manage().getCookies();
+                    url = webdriver().driver().getCurrentFrameUrl();
+                } catch (Throwable e) {
+                    failure = e;
+                }
+            }
+            return url != null;
+        }
+
+        /**
+         * Восстановление cookies навигации в сессии текущего потока без загрузки страницы.
+         * <p>
+         * Если команды DevTools недоступны, cookies не восстанавливаются.
+         * </p>
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        void restore() {
+            if (!Cdp.isSupported()) return;
+            for (Cookie cookie : cookies) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("name", cookie.getName());
+                params.put("value", cookie.getValue());
+                params.put("domain", cookie.getDomain());
+                params.put("path", cookie.getPath());
+                params.put("secure", cookie.isSecure());
+                params.put("httpOnly", cookie.isHttpOnly());
+                if (cookie.getExpiry() != null) {
+                    params.put("expires", cookie.getExpiry().getTime() / 1000.0);
+                }
+                if (cookie.getSameSite() != null) {
+                    params.put("sameSite", cookie.getSameSite());
+                }
+                Cdp.send("Network.setCookie", params);
+            }
+        }
+
+        /**
+         * Получение ссылки на страницу раздела.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @return ссылка, null если навигация не выполнена
+         */
+        synchronized String getUrl() {
+            return url;
+        }
+    }
 }
@@ -0,0 +1,193 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты скомпилированных выражений над фильтрами.
+ *
+ * @author Вилков Андрей
+ * @see CompiledFilter
+ */
+class CompiledFilterTest {
+    /**
+     * Товар, используемый в проверках
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final Product PRODUCT = new Product("Ноутбук HP 15s", "https://market.yandex.ru/product/1", 45000);
+
+    /**
+     * Вложенные И объединяются в одно И, двойное отрицание убирается.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Упрощение выражения при компиляции")
+    void flattensNestedGroups() {
+        CountingFilter a = new CountingFilter("a", 1, true);
+        CountingFilter b = new CountingFilter("b", 2, true);
+        CountingFilter c = new CountingFilter("c", 3, true);
+        FilterExpression expression = FilterExpression.and(
+                FilterExpression.and(FilterExpression.of(a), FilterExpression.of(b)),
+                FilterExpression.not(FilterExpression.not(FilterExpression.of(c))));
+
+        assertEquals("(a И b И c)", expression.compile().toString());
+    }
+
+    /**
+     * Результат проверки совпадает с логикой И/ИЛИ/НЕ.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Проверка И, ИЛИ и НЕ")
+    void evaluatesLogic() {
+        FilterExpression brand = FilterExpression.of(new CheckBoxFilter("Производитель", Product::getHeader, "HP", "Lenovo"));
+        FilterExpression cheap = FilterExpression.of(new RangeFilter("Цена", Product::getPrice, 0, 30000));
+
+        assertFalse(FilterExpression.and(brand, cheap).compile().test(PRODUCT));
+        assertTrue(FilterExpression.or(brand, cheap).compile().test(PRODUCT));
+        assertTrue(FilterExpression.and(brand, FilterExpression.not(cheap)).compile().test(PRODUCT));
+    }
+
+    /**
+     * Каждый фильтр И, которому товар не соответствует, попадает в результат один раз,
+     * части с ИЛИ передаются скомпилированными.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Причины несоответствия товара")
+    void reportsEachMismatchOnce() {
+        CountingFilter passing = new CountingFilter("passing", 1, true);
+        CountingFilter first = new CountingFilter("first", 1, false);
+        CountingFilter second = new CountingFilter("second", 1, false);
+        FilterExpression either = FilterExpression.or(FilterExpression.of(first), FilterExpression.of(second));
+        CompiledFilter filter = FilterExpression.and(FilterExpression.of(passing), FilterExpression.of(first), either).compile();
+
+        MatchReport report = filter.evaluate(PRODUCT);
+
+        assertFalse(report.isMatched());
+        assertEquals(List.of(first), report.getMismatchedFilters());
+        assertEquals(1, report.getMismatchedConditions().size());
+        CompiledFilter condition = report.getMismatchedConditions().get(0);
+        assertSame(either, condition.getExpression());
+        assertFalse(condition.test(PRODUCT));
+    }
+
+    /**
+     * Товар, соответствующий выражению, получает общий результат без причин.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Товар соответствует выражению")
+    void matchedReport() {
+        CompiledFilter filter = FilterExpression.of(new CountingFilter("a", 1, true)).compile();
+
+        MatchReport report = filter.evaluate(PRODUCT);
+
+        assertTrue(report.isMatched());
+        assertTrue(report.getMismatches().isEmpty());
+        assertTrue(report.getMismatchedConditions().isEmpty());
+    }
+
+    /**
+     * До измерений операнды И упорядочены по оценочной стоимости, после накопления статистики
+     * первым проверяется отсеивающий фильтр, и пропускающий все товары фильтр больше не вызывается.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Перестановка операндов по статистике проверок")
+    void reordersBySelectivity() {
+        CountingFilter cheapPassing = new CountingFilter("cheapPassing", 1, true);
+        CountingFilter costlyRejecting = new CountingFilter("costlyRejecting", 10, false);
+        CompiledFilter filter = FilterExpression.and(FilterExpression.of(costlyRejecting), FilterExpression.of(cheapPassing)).compile();
+        assertEquals("(cheapPassing И costlyRejecting)", filter.toString());
+
+        int evaluations = 2000;
+        for (int i = 0; i < evaluations; i++) {
+            assertFalse(filter.test(PRODUCT));
+        }
+
+        assertEquals("(costlyRejecting И cheapPassing)", filter.toString());
+        assertEquals(evaluations, costlyRejecting.calls);
+        assertTrue(cheapPassing.calls < evaluations / 2, "Пропускающий фильтр вызван " + cheapPassing.calls + " раз");
+    }
+
+    /**
+     * Фильтр с заданными результатом и оценочной стоимостью, считающий свои вызовы.
+     *
+     * @author Вилков Андрей
+     */
+    private static final class CountingFilter extends Filter {
+        /**
+         * Оценочная стоимость проверки
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final double cost;
+        /**
+         * Результат каждой проверки
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        private final boolean result;
+        /**
+         * Количество проверок
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         */
+        int calls;
+
+        /**
+         * Конструктор класса {@link CountingFilter}.
+         * <p>
+         * Автор: Вилков Андрей
+         * </p>
+         *
+         * @param name   имя фильтра
+         * @param cost   оценочная стоимость проверки
+         * @param result результат каждой проверки
+         */
+        CountingFilter(String name, double cost, boolean result) {
+            super(FilterType.CHECKBOX, name);
+            this.cost = cost;
+            this.result = result;
+        }
+
+        @Override
+        public boolean isMatches(Product product) {
+            calls++;
+            return result;
+        }
+
+        @Override
+        public double estimatedCost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return getFilterName();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты индекса блоков фильтров боковой панели.
+ *
+ * @author Вилков Андрей
+ * @see FilterIndex
+ */
+class FilterIndexTest {
+    /**
+     * Блоки фильтров в виде, возвращаемом скриптом индексации
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final List<Map<String, Object>> BLOCKS = List.of(
+            block("7893318", " Производитель ", "Производитель Показать всё", "CHECKBOX",
+                    value("7893318_152722", "HP"), value("7893318_153043", "Lenovo")),
+            block("glprice", "Цена, ₽", "Цена, ₽ от до", "RANGE"),
+            block("26889490", "Объём оперативной   памяти", "Объём оперативной памяти", null,
+                    value("26889490_8", "8 ГБ"), value("other", "16  ГБ")),
+            block("7893318-dup", "Производитель", "Производитель", "CHECKBOX"));
+
+    /**
+     * Имена фильтров и подписи значений сравниваются без учёта регистра и повторных пробелов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Нормализация имён")
+    void normalizesNames() {
+        assertEquals("ОБЪЁМ ОПЕРАТИВНОЙ ПАМЯТИ", FilterIndex.normalize("  Объём оперативной \t памяти "));
+        assertEquals("", FilterIndex.normalize(null));
+    }
+
+    /**
+     * Фильтр находится по точному имени, при нескольких блоках с одним именем - первый.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Поиск фильтра по имени")
+    void findsByName() {
+        FilterIndex index = new FilterIndex(BLOCKS);
+
+        FilterIndex.Entry brand = index.find("производитель").orElseThrow();
+        assertEquals("7893318", brand.getId());
+        assertEquals(FilterType.CHECKBOX, brand.getType());
+        assertEquals(FilterType.RANGE, index.find("Цена, ₽").orElseThrow().getType());
+    }
+
+    /**
+     * Фильтр без точного совпадения находится по части имени или текста блока, отсутствующий - не находится.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Поиск фильтра по части имени")
+    void findsByPartialName() {
+        FilterIndex index = new FilterIndex(BLOCKS);
+
+        assertEquals("glprice", index.find("Цена").orElseThrow().getId());
+        assertEquals("26889490", index.find("оперативной памяти").orElseThrow().getId());
+        assertNull(index.find("оперативной памяти").orElseThrow().getType());
+        assertTrue(index.find("Диагональ экрана").isEmpty());
+    }
+
+    /**
+     * Идентификатор значения берётся без префикса идентификатора блока, значение ищется по нормализованной подписи.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Идентификаторы значений фильтра")
+    void mapsValueLabelsToIds() {
+        FilterIndex index = new FilterIndex(BLOCKS);
+
+        FilterIndex.Entry brand = index.find("Производитель").orElseThrow();
+        assertEquals("152722", brand.getValueId("hp"));
+        assertEquals("153043", brand.getValueId(" LENOVO "));
+        assertNull(brand.getValueId("Asus"));
+
+        FilterIndex.Entry memory = index.find("Объём оперативной памяти").orElseThrow();
+        assertEquals("8", memory.getValueId("8 гб"));
+        assertEquals("other", memory.getValueId("16 ГБ"));
+        assertEquals(List.of("8 ГБ", "16 ГБ"), List.copyOf(memory.getValues().keySet()));
+    }
+
+    /**
+     * Получение блока фильтра.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param id     идентификатор блока
+     * @param name   имя фильтра
+     * @param text   текст блока
+     * @param type   тип фильтра или null
+     * @param values значения фильтра
+     * @return блок фильтра
+     */
+    @SafeVarargs
+    private static Map<String, Object> block(String id, String name, String text, String type, Map<String, Object>... values) {
+        Map<String, Object> block = new HashMap<>();
+        block.put("id", id);
+        block.put("name", name);
+        block.put("text", text);
+        block.put("type", type);
+        block.put("values", List.of(values));
+        return block;
+    }
+
+    /**
+     * Получение значения фильтра.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param id    идентификатор значения
+     * @param label подпись значения
+     * @return значение фильтра
+     */
+    private static Map<String, Object> value(String id, String label) {
+        return Map.of("id", id, "label", label);
+    }
+}
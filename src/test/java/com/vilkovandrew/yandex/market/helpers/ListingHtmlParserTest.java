@@ -0,0 +1,145 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Тесты потокового разбора HTML страницы результатов поиска по сокращённой записи страницы.
+ *
+ * @author Вилков Андрей
+ * @see ListingHtmlParser
+ */
+class ListingHtmlParserTest {
+    /**
+     * Ссылка на разбираемую страницу
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static final URI BASE_URI = URI.create("https://market.yandex.ru/search?text=ноутбук&page=1");
+
+    /**
+     * Товары записанной страницы
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    private static List<Product> products;
+
+    /**
+     * Разбор записанной страницы.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @throws IOException ошибка чтения записи
+     */
+    @BeforeAll
+    static void parseRecordedPage() throws IOException {
+        try (InputStream stream = ListingHtmlParserTest.class.getResourceAsStream("/listing/search-page.html")) {
+            assertNotNull(stream, "Нет записи страницы listing/search-page.html");
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                products = ListingHtmlParser.parse(BASE_URI, reader);
+            }
+        }
+    }
+
+    /**
+     * Товарами считаются только ссылки в заголовках карточек, разметка внутри script, style, textarea, title
+     * и комментариев не разбирается.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Разметка в элементах с необрабатываемым содержимым не даёт товаров")
+    void rawTextElementsAreSkipped() {
+        assertEquals(List.of(
+                "https://market.yandex.ru/product--noutbuk-lenovo-ideapad-3/101?sku=1001",
+                "https://market.yandex.ru/product--mysh-logitech/201",
+                "https://market.yandex.ru/product--noutbuk-hp-15s/102",
+                "https://market.yandex.ru/product--noutbuk-asus-vivobook/103"
+        ), products.stream().map(Product::getLink).collect(Collectors.toList()));
+    }
+
+    /**
+     * Именованные и числовые ссылки на символы в заголовке и цене декодируются, пробелы схлопываются.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Ссылки на символы декодируются")
+    void entitiesAreDecoded() {
+        Product lenovo = products.get(0);
+        assertEquals("Ноутбук Lenovo IdeaPad 3 15\" «Arctic»", lenovo.getHeader());
+        assertEquals(45990, lenovo.getPrice());
+        assertEquals("Ноутбук HP 15s & сумка", products.get(2).getHeader());
+    }
+
+    /**
+     * Вложенная карточка передаётся отдельным товаром со своей ценой и не влияет на цену внешней карточки.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Вложенные карточки разбираются независимо")
+    void nestedArticles() {
+        Product mouse = products.get(1);
+        assertEquals("Мышь Logitech M185", mouse.getHeader());
+        assertEquals(1290, mouse.getPrice());
+        Product hp = products.get(2);
+        assertEquals(52490, hp.getPrice());
+    }
+
+    /**
+     * Товар без блока цены передаётся без цены, текст вложенных в ссылку элементов входит в заголовок.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Товар без цены")
+    void missingPrice() {
+        Product asus = products.get(3);
+        assertEquals("Ноутбук ASUS VivoBook 15", asus.getHeader());
+        assertEquals(Product.NO_PRICE, asus.getPrice());
+    }
+
+    /**
+     * Незакрытые элементы и закрывающие теги без пары не нарушают разбор следующих карточек.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @throws IOException ошибка чтения документа
+     */
+    @Test
+    @DisplayName("Ошибки разметки не нарушают разбор")
+    void malformedMarkup() throws IOException {
+        String html = "<div></span><article><h3 data-zone-name=title><a href=/product/1>Первый<br>товар</a></h3>"
+                + "<div data-zone-name=price><p><span>100</span></div></article>"
+                + "<article><h3 data-zone-name='title'><a href='/product/2'>Второй</a></h3></article>";
+        List<Product> parsed = ListingHtmlParser.parse(BASE_URI, new StringReader(html));
+        assertEquals(2, parsed.size());
+        assertEquals("Первыйтовар", parsed.get(0).getHeader());
+        assertEquals(100, parsed.get(0).getPrice());
+        assertEquals("https://market.yandex.ru/product/2", parsed.get(1).getLink());
+        assertEquals(Product.NO_PRICE, parsed.get(1).getPrice());
+    }
+}
@@ -0,0 +1,177 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты столбцового набора товаров и проверки диапазонов по столбцам.
+ *
+ * @author Вилков Андрей
+ * @see ProductBatch
+ * @see RangeFilter
+ */
+class ProductBatchTest {
+    /**
+     * Значения, полученные скриптом со страницы, переводятся в поля товара, нераспознанная цена - в {@link Product#NO_PRICE}.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Товар из значений скрипта")
+    void productFromScriptValues() {
+        Product product = new Product(item("Ноутбук HP", "https://market.yandex.ru/product/1", "45 990"));
+        assertEquals("Ноутбук HP", product.getHeader());
+        assertEquals("https://market.yandex.ru/product/1", product.getLink());
+        assertEquals(45990, product.getPrice());
+
+        assertEquals(Product.NO_PRICE, new Product(item("Ноутбук", "", null)).getPrice());
+        assertEquals(Product.NO_PRICE, new Product(item("Ноутбук", "", "по запросу")).getPrice());
+        assertEquals("", new Product(new HashMap<String, Object>()).getHeader());
+    }
+
+    /**
+     * Товары добавляются в порядке списка, столбец цен совпадает с ценами товаров при росте набора.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Столбец цен набора")
+    void priceColumn() {
+        List<Product> products = products(100);
+        ProductBatch batch = ProductBatch.of(products.subList(0, 10)).addAll(products.subList(10, 100));
+
+        assertEquals(100, batch.size());
+        int[] prices = batch.column(ProductBatch.PRICE);
+        for (int i = 0; i < batch.size(); i++) {
+            assertSame(products.get(i), batch.get(i));
+            assertEquals(products.get(i).getPrice(), prices[i]);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.get(100));
+    }
+
+    /**
+     * Столбец произвольного поля вычисляется один раз и пересчитывается после добавления товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Столбец произвольного поля")
+    void derivedColumn() {
+        ToIntFunction<Product> headerLength = product -> product.getHeader().length();
+        ProductBatch batch = ProductBatch.of(List.of(new Product("ab", "", 1), new Product("abcd", "", 2)));
+
+        int[] column = batch.column(headerLength);
+        assertArrayEquals(new int[]{2, 4}, column);
+        assertSame(column, batch.column(headerLength));
+
+        batch.addAll(List.of(new Product("a", "", 3)));
+        assertArrayEquals(new int[]{2, 4, 1}, batch.column(headerLength));
+    }
+
+    /**
+     * Минимум, максимум и гистограмма не учитывают товары без цены.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Статистика цен без товаров без цены")
+    void statisticsSkipAbsent() {
+        ProductBatch batch = ProductBatch.of(List.of(
+                new Product("a", "", 500),
+                new Product("b", "", Product.NO_PRICE),
+                new Product("c", "", 1500),
+                new Product("d", "", 1000)));
+
+        assertEquals(500, batch.min(ProductBatch.PRICE));
+        assertEquals(1500, batch.max(ProductBatch.PRICE));
+        assertEquals(1, batch.countAbsent(ProductBatch.PRICE));
+
+        long[] counts = new long[3];
+        batch.histogram(ProductBatch.PRICE, new int[]{1000, 1500}, counts);
+        assertArrayEquals(new long[]{1, 1, 1}, counts);
+        assertThrows(IllegalArgumentException.class, () -> batch.histogram(ProductBatch.PRICE, new int[]{1000}, new long[1]));
+
+        ProductBatch empty = ProductBatch.of(List.of(new Product("a", "", Product.NO_PRICE)));
+        assertEquals(Product.NO_PRICE, empty.min(ProductBatch.PRICE));
+        assertEquals(Product.NO_PRICE, empty.max(ProductBatch.PRICE));
+    }
+
+    /**
+     * Проверка диапазона по столбцу даёт тот же результат, что и проверка каждого товара.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Проверка диапазона по столбцу")
+    void rangeFilterOverColumn() {
+        List<Product> products = products(100);
+        products.set(7, new Product("Без цены", "", Product.NO_PRICE));
+        ProductBatch batch = ProductBatch.of(products);
+
+        for (AbsentValuePolicy policy : AbsentValuePolicy.values()) {
+            RangeFilter filter = new RangeFilter("Цена", Product::getPrice, 2000, 6000, policy);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < products.size(); i++) {
+                if (!filter.isMatches(products.get(i))) expected.add(i);
+            }
+            List<Integer> actual = new ArrayList<>();
+            for (int i = filter.nextMismatch(batch, 0); i >= 0; i = filter.nextMismatch(batch, i + 1)) {
+                actual.add(i);
+            }
+            assertEquals(expected, actual, policy.name());
+            assertEquals(expected.size(), filter.countMismatches(batch), policy.name());
+        }
+    }
+
+    /**
+     * Получение значений товара в виде, возвращаемом скриптом извлечения товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param header заголовок
+     * @param link   ссылка
+     * @param price  текст цены или null
+     * @return значения полей товара
+     */
+    private static Map<String, Object> item(String header, String link, String price) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("header", header);
+        item.put("link", link);
+        item.put("price", price);
+        return item;
+    }
+
+    /**
+     * Получение списка товаров с ценами 100, 200, ...
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param count количество товаров
+     * @return список товаров
+     */
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            products.add(new Product("Товар " + i, "https://market.yandex.ru/product/" + i, i * 100));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,136 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты плана выборочной проверки товаров.
+ *
+ * @author Вилков Андрей
+ * @see SamplingPlan
+ */
+class SamplingPlanTest {
+    /**
+     * Размер выборки для уверенности 0.99 и доли несоответствий 0.01 равен ln(0.01) / ln(0.99).
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Размер выборки по уверенности и доле несоответствий")
+    void requiredSampleSize() {
+        assertEquals(459, SamplingPlan.requiredSampleSize(0.99, 0.01));
+        assertEquals(44, SamplingPlan.requiredSampleSize(0.99, 0.1));
+    }
+
+    /**
+     * Уверенность и доля несоответствий вне интервала (0, 1) отклоняются.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param confidence       уверенность
+     * @param maxViolationRate доля несоответствий
+     */
+    @ParameterizedTest
+    @CsvSource({"0, 0.01", "1, 0.01", "1.5, 0.01", "-0.1, 0.01", "NaN, 0.01",
+            "0.99, 0", "0.99, 1", "0.99, -0.5", "0.99, NaN"})
+    @DisplayName("Недопустимые параметры выборки")
+    void rejectsOutOfRange(double confidence, double maxViolationRate) {
+        assertThrows(IllegalArgumentException.class, () -> SamplingPlan.requiredSampleSize(confidence, maxViolationRate));
+        assertThrows(IllegalArgumentException.class, () -> new SamplingPlan(10, 48, confidence, maxViolationRate, 1));
+    }
+
+    /**
+     * Из каждого диапазона страниц выбирается одна страница, на странице - не более половины товаров.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Страницы выбираются по диапазонам")
+    void pagesCoverStrata() {
+        SamplingPlan plan = new SamplingPlan(100, 48, 0.99, 0.01, 42);
+        List<Integer> pages = plan.getPages();
+        assertEquals(20, pages.size());
+        for (int stratum = 0; stratum < pages.size(); stratum++) {
+            int page = pages.get(stratum);
+            assertTrue(page > stratum * 5 && page <= (stratum + 1) * 5, "Страница " + page + " вне диапазона " + stratum);
+        }
+        assertEquals(23, plan.sample(pages.get(0), products(48)).size());
+    }
+
+    /**
+     * План с тем же начальным значением выбирает те же страницы и товары.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("План воспроизводим по начальному значению")
+    void reproducibleBySeed() {
+        SamplingPlan first = new SamplingPlan(100, 48, 0.99, 0.01, 7);
+        SamplingPlan second = new SamplingPlan(100, 48, 0.99, 0.01, 7);
+        assertEquals(first.getPages(), second.getPages());
+        assertEquals(first.sample(3, products(48)), second.sample(3, products(48)));
+    }
+
+    /**
+     * Если страниц меньше, чем нужно, проверяются все страницы и все товары, уверенность равна 1.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Полная проверка малого результата")
+    void smallResultIsCheckedCompletely() {
+        SamplingPlan plan = new SamplingPlan(2, 48, 0.99, 0.01, 1);
+        assertEquals(List.of(1, 2), plan.getPages());
+        assertEquals(48, plan.sample(1, products(48)).size());
+        assertEquals(1, plan.achievedConfidence(96));
+        assertEquals(1, plan.achievedPageConfidence(2));
+    }
+
+    /**
+     * Уверенность по страницам не выше уверенности по товарам, так как страница - одно испытание.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Уверенность по страницам консервативнее уверенности по товарам")
+    void pageConfidenceIsConservative() {
+        SamplingPlan plan = new SamplingPlan(100, 48, 0.99, 0.01, 1);
+        double byProducts = plan.achievedConfidence(460);
+        double byPages = plan.achievedPageConfidence(20);
+        assertTrue(byProducts >= 0.99);
+        assertTrue(byPages < byProducts);
+        assertEquals(1 - Math.pow(0.99, 20), byPages, 1e-9);
+    }
+
+    /**
+     * Получение товаров с различными заголовками.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param count количество товаров
+     * @return товары
+     */
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(new Product("Товар " + i, "https://market.yandex.ru/product/" + i, 1000 + i));
+        }
+        return products;
+    }
+}
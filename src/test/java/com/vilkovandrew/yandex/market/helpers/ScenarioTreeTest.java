@@ -0,0 +1,126 @@
+package com.vilkovandrew.yandex.market.helpers;
+
+import com.vilkovandrew.helpers.Properties;
+import com.vilkovandrew.helpers.TestDataProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты чтения файла сценариев и группировки сценариев по общей навигации.
+ *
+ * @author Вилков Андрей
+ * @see TestDataProvider#scenarios(Path)
+ * @see ScenarioTree
+ */
+class ScenarioTreeTest {
+    /**
+     * Строки файла разбираются в сценарии по порядку, пустые строки и комментарии пропускаются,
+     * пробелы вокруг полей и регистр типа фильтра не учитываются.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Чтение сценариев из файла")
+    void parsesScenarios() {
+        List<Scenario> scenarios = TestDataProvider.scenarios(resource("/scenarios/grouped.csv"));
+
+        assertEquals(4, scenarios.size());
+        Scenario first = scenarios.get(0);
+        assertEquals(List.of(Properties.appProperties.getYaMarketUrl(), "Электроника", "Смартфоны"), first.getNavigation());
+        CheckBoxFilter brand = assertInstanceOf(CheckBoxFilter.class, first.getFilters().get(0));
+        assertEquals("Производитель", brand.getFilterName());
+        assertEquals(List.of("Apple", "Samsung"), brand.getValues());
+
+        RangeFilter price = assertInstanceOf(RangeFilter.class, scenarios.get(1).getFilters().get(0));
+        assertEquals("Смартфоны", scenarios.get(1).getItemSection());
+        assertEquals(10000, price.getMinValue());
+        assertEquals(30000, price.getMaxValue());
+
+        List<Filter> filters = scenarios.get(2).getFilters();
+        assertEquals(2, filters.size());
+        assertEquals(FilterType.CHECKBOX, filters.get(0).getType());
+        assertEquals(FilterType.RANGE, filters.get(1).getType());
+    }
+
+    /**
+     * Строка с неполным описанием или некорректным диапазоном отклоняется с указанием файла и строки.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Некорректные строки файла сценариев")
+    void rejectsMalformedLines() {
+        AssertionFailedError missing = assertThrows(AssertionFailedError.class,
+                () -> TestDataProvider.scenarios(resource("/scenarios/missing-fields.csv")));
+        assertTrue(missing.getMessage().contains("missing-fields.csv:1"), missing.getMessage());
+
+        AssertionFailedError range = assertThrows(AssertionFailedError.class,
+                () -> TestDataProvider.scenarios(resource("/scenarios/invalid-range.csv")));
+        assertTrue(range.getMessage().contains("invalid-range.csv:1"), range.getMessage());
+    }
+
+    /**
+     * Сценарии с общей навигацией попадают в один узел в порядке файла, узлы создаются в порядке первого появления,
+     * одинаковый раздел в разных категориях образует разные узлы.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     */
+    @Test
+    @DisplayName("Группировка сценариев по общей навигации")
+    void groupsByNavigationPrefix() {
+        List<Scenario> scenarios = TestDataProvider.scenarios(resource("/scenarios/grouped.csv"));
+        ScenarioTree root = ScenarioTree.of(scenarios);
+
+        assertEquals("", root.getStep());
+        assertTrue(root.getScenarios().isEmpty());
+        assertEquals(1, root.getChildren().size());
+        ScenarioTree site = root.getChildren().iterator().next();
+        assertEquals(List.of(Properties.appProperties.getYaMarketUrl()), site.getPath());
+
+        List<ScenarioTree> categories = new ArrayList<>(site.getChildren());
+        assertEquals(List.of("Электроника", "Компьютеры"), List.of(categories.get(0).getStep(), categories.get(1).getStep()));
+
+        List<ScenarioTree> electronics = new ArrayList<>(categories.get(0).getChildren());
+        assertEquals(2, electronics.size());
+        ScenarioTree phones = electronics.get(0);
+        assertEquals(List.of(Properties.appProperties.getYaMarketUrl(), "Электроника", "Смартфоны"), phones.getPath());
+        assertEquals(List.of(scenarios.get(0), scenarios.get(1)), phones.getScenarios());
+        assertTrue(phones.getChildren().isEmpty());
+        assertEquals(List.of(scenarios.get(2)), electronics.get(1).getScenarios());
+
+        ScenarioTree computerLaptops = categories.get(1).getChildren().iterator().next();
+        assertEquals("Ноутбуки", computerLaptops.getStep());
+        assertEquals(List.of(scenarios.get(3)), computerLaptops.getScenarios());
+    }
+
+    /**
+     * Получение пути к файлу из ресурсов тестов.
+     * <p>
+     * Автор: Вилков Андрей
+     * </p>
+     *
+     * @param name имя ресурса
+     * @return путь к файлу
+     */
+    private static Path resource(String name) {
+        try {
+            return Path.of(ScenarioTreeTest.class.getResource(name).toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}